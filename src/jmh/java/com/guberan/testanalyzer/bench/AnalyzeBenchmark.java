@@ -0,0 +1,153 @@
+package com.guberan.testanalyzer.bench;
+
+import com.guberan.testanalyzer.service.TestAnalyzer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless end-to-end benchmark of {@link TestAnalyzer#analyze} on {@link SyntheticProject} trees.
+ * Runs offline: the trees are generated locally (once, then reused) instead of cloning the presets.
+ * <p>
+ * Usage (options are optional):
+ * <pre>
+ *   AnalyzeBenchmark [--shapes commons-lang,guava|all] [--dir target/bench-projects]
+ *                    [--warmups 1] [--runs 3] [--parallelism N] [--engine AST|SCANNER]
+ * </pre>
+ * Prints, per shape, the median wall time, the median duration of each {@link TestAnalyzer.Phase}
+ * and the peak heap usage over the measured runs.
+ */
+public final class AnalyzeBenchmark {
+
+    private AnalyzeBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<SyntheticProject.Shape> shapes = SyntheticProject.Shape.PRESETS;
+        Path dir = Path.of("target", "bench-projects");
+        int warmups = 1;
+        int runs = 3;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        TestAnalyzer.ExtractionEngine engine = TestAnalyzer.ExtractionEngine.AST;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--shapes" -> shapes = "all".equals(value) ? shapes
+                        : Arrays.stream(value.split(",")).map(SyntheticProject.Shape::preset).toList();
+                case "--dir" -> dir = Path.of(value);
+                case "--warmups" -> warmups = Integer.parseInt(value);
+                case "--runs" -> runs = Integer.parseInt(value);
+                case "--parallelism" -> parallelism = Integer.parseInt(value);
+                case "--engine" -> engine = TestAnalyzer.ExtractionEngine.valueOf(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            i++;
+        }
+
+        System.out.printf("%-17s %7s %9s %7s %7s %7s %7s %7s %7s %9s%n",
+                "shape", "files", "wall ms", "scan", "classif", "index", "parse", "infer", "report", "heap MB");
+        for (SyntheticProject.Shape shape : shapes) {
+            Path root = dir.resolve(shape.name());
+            int files = prepare(shape, root);
+            Result result = measure(root, warmups, runs, parallelism, engine);
+            System.out.printf("%-17s %7d %9d %7d %7d %7d %7d %7d %7d %9d%n",
+                    shape.name(), files, result.wallMs,
+                    result.phaseMs(TestAnalyzer.Phase.SCAN), result.phaseMs(TestAnalyzer.Phase.CLASSIFY),
+                    result.phaseMs(TestAnalyzer.Phase.INDEX), result.phaseMs(TestAnalyzer.Phase.PARSE),
+                    result.phaseMs(TestAnalyzer.Phase.INFER), result.phaseMs(TestAnalyzer.Phase.REPORT),
+                    result.peakHeapBytes / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Generates the tree of {@code shape} unless a previous run already did.
+     *
+     * @return number of files in the tree
+     */
+    private static int prepare(SyntheticProject.Shape shape, Path root) {
+        Path marker = root.resolve(".generated");
+        try {
+            if (Files.exists(marker)) {
+                return Integer.parseInt(Files.readString(marker).trim());
+            }
+            System.err.println("Generating " + shape + " into " + root + "…");
+            int files = SyntheticProject.generate(shape, root);
+            Files.writeString(marker, Integer.toString(files));
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Result measure(Path root, int warmups, int runs, int parallelism, TestAnalyzer.ExtractionEngine engine) {
+        for (int i = 0; i < warmups; i++) {
+            newAnalyzer(parallelism, engine).analyze(root, p -> {
+            });
+        }
+
+        List<Long> walls = new ArrayList<>();
+        List<Map<TestAnalyzer.Phase, Duration>> phases = new ArrayList<>();
+        long peakHeap = 0;
+        for (int i = 0; i < runs; i++) {
+            System.gc();
+            resetPeakHeap();
+            TestAnalyzer analyzer = newAnalyzer(parallelism, engine);
+            long start = System.nanoTime();
+            analyzer.analyze(root, p -> {
+            });
+            walls.add((System.nanoTime() - start) / 1_000_000);
+            phases.add(analyzer.getPhaseTimings());
+            peakHeap = Math.max(peakHeap, peakHeap());
+        }
+        return new Result(median(walls), phases, peakHeap);
+    }
+
+    private static TestAnalyzer newAnalyzer(int parallelism, TestAnalyzer.ExtractionEngine engine) {
+        TestAnalyzer analyzer = new TestAnalyzer();
+        analyzer.setParallelism(parallelism);
+        analyzer.setEngine(engine);
+        return analyzer;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Sum of the per-pool peaks: an upper bound of the heap actually used at once.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Result(long wallMs, List<Map<TestAnalyzer.Phase, Duration>> phases, long peakHeapBytes) {
+
+        long phaseMs(TestAnalyzer.Phase phase) {
+            return median(phases.stream()
+                    .map(p -> p.getOrDefault(phase, Duration.ZERO).toMillis())
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.guberan.testanalyzer.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test method names shaped like the ones found in the preset repositories (Spring, JUnit 5,
+ * Guava, Commons Lang): classic {@code testXxx}, plain camelCase, BDD phrases, snake_case
+ * and given/when/then names, in roughly the proportions seen in those projects.
+ */
+public final class MethodNameCorpus {
+
+    /**
+     * Names taken verbatim from the style of real test suites.
+     */
+    private static final List<String> SAMPLES = List.of(
+            // classic JUnit 3/4
+            "testToString", "testEquals", "testHashCode", "testIsEmpty", "testSplitByWholeSeparator",
+            "testAbbreviate_StringInt", "testNullToEmpty", "testContainsAny_StringCharArray",
+            "testGetPropertyWithDefault", "testSerialization", "testCopyOf_nullPointer",
+            // plain camelCase
+            "emptyIterator", "copyOfEmptyList", "resolveNestedPlaceholders", "parseDuration",
+            "concurrentModification", "builderWithExpectedSize", "lazyInitialization",
+            "defaultLocale", "autowiredFieldInjection", "nestedClassesAreDiscovered",
+            // BDD / phrase-like
+            "shouldReturnEmptyOptionalWhenKeyIsMissing", "shouldThrowExceptionForNullInput",
+            "returnsNullWhenNoMatchingBeanFound", "parseInvalidJsonThrowsException",
+            "failsWhenConfigurationFileIsMissing", "rejectsNegativeTimeout",
+            "expectIllegalArgumentExceptionForEmptyName", "doesNotFailOnUnknownProperties",
+            "createsDefaultContextIfNoneConfigured", "emitsErrorWhenUpstreamFails",
+            // snake_case / mixed
+            "should_return_empty_list_when_input_is_null", "parse_valid_date_returns_instant",
+            "given_expired_token_when_refresh_then_fails", "whenCalledTwice_thenCachedValueIsReturned",
+            "givenUserExists_whenDelete_thenRepositoryIsEmpty", "givenNoProfile_whenStart_thenDefaultIsUsed",
+            "mapsNull_to_emptyString", "handles-dashes-in-names",
+            // short / awkward
+            "a", "test", "it", "x1", "run", "smoke", "TEST_UPPER", "testXMLParserHTTPRequest"
+    );
+
+    private static final String[] SUBJECTS = {
+            "User", "Order", "Token", "Bean", "Context", "Cache", "Parser", "Property", "Request", "Stream"
+    };
+    private static final String[] ACTIONS = {
+            "Create", "Parse", "Resolve", "Load", "Save", "Delete", "Convert", "Validate", "Merge", "Refresh"
+    };
+    private static final String[] OUTCOMES = {
+            "ReturnsNull", "ThrowsException", "IsEmpty", "IsValid", "Fails", "ReturnsDefault", "IsCached", "Succeeds"
+    };
+
+    private MethodNameCorpus() {
+    }
+
+    /**
+     * Returns {@code size} method names: the fixed samples, topped up with names generated
+     * from the same styles (seeded, so every run benchmarks the same input).
+     */
+    public static String[] names(int size) {
+        List<String> out = new ArrayList<>(size);
+        Random random = new Random(42);
+        while (out.size() < size) {
+            if (out.size() < SAMPLES.size()) {
+                out.add(SAMPLES.get(out.size()));
+                continue;
+            }
+            String subject = pick(random, SUBJECTS);
+            String action = pick(random, ACTIONS);
+            String outcome = pick(random, OUTCOMES);
+            out.add(switch (random.nextInt(6)) {
+                case 0 -> "test" + action + subject;
+                case 1 -> action.toLowerCase() + subject + outcome;
+                case 2 -> "should" + outcome + "When" + subject + "Is" + action + "d";
+                case 3 -> "given" + subject + "_when" + action + "_then" + outcome;
+                case 4 -> (action + "_" + subject + "_" + outcome).toLowerCase();
+                default -> action.toLowerCase() + subject;
+            });
+        }
+        return out.toArray(String[]::new);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
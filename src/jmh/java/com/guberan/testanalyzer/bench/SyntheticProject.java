@@ -0,0 +1,208 @@
+package com.guberan.testanalyzer.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates Maven-layout project trees ({@code <module>/src/main/java}, {@code <module>/src/test/java})
+ * for end-to-end benchmarks. Output is fully determined by the {@link Shape}, so two runs on
+ * different machines analyze byte-identical trees.
+ */
+public final class SyntheticProject {
+
+    private static final String[] DOMAINS = {
+            "core", "util", "io", "context", "web", "data", "cache", "security", "config", "json"
+    };
+    private static final String[] SUBJECTS = {
+            "User", "Order", "Token", "Bean", "Context", "Cache", "Parser", "Property", "Request",
+            "Stream", "Registry", "Converter", "Resolver", "Handler", "Factory", "Session"
+    };
+    private static final String[] ACTIONS = {
+            "create", "parse", "resolve", "load", "save", "delete", "convert", "validate", "merge",
+            "refresh", "register", "lookup", "handle", "compute", "send"
+    };
+    private static final String[] OBJECTS = {
+            "Value", "Entry", "Name", "Path", "Timeout", "Header", "Profile", "Locale", "Key", "Prefix"
+    };
+    private static final String[] OUTCOMES = {
+            "ReturnsNull", "ThrowsException", "IsEmpty", "IsValid", "Fails", "ReturnsDefault",
+            "IsCached", "Succeeds", "ThrowsIllegalArgumentException", "ReturnsEmptyOptional"
+    };
+    private static final String[] CONDITIONS = {
+            "InputIsNull", "KeyIsMissing", "ValueIsBlank", "CalledTwice", "ProfileIsActive",
+            "TimeoutExpires", "ListIsEmpty", "NoBeanFound"
+    };
+
+    /**
+     * Size and naming mix of a synthetic project. The style weights are relative.
+     *
+     * @param name                label used in reports
+     * @param modules             number of Maven modules
+     * @param testClasses         total number of test classes (each with a matching production class)
+     * @param methodsPerTestClass average number of test methods per test class
+     * @param testPrefixWeight    weight of {@code testXxx} names
+     * @param bddWeight           weight of {@code shouldXxxWhenYyy} / given-when-then names
+     * @param snakeWeight         weight of {@code snake_case_names}
+     * @param plainWeight         weight of plain camelCase names (often the production method name)
+     */
+    public record Shape(String name, int modules, int testClasses, int methodsPerTestClass,
+                        int testPrefixWeight, int bddWeight, int snakeWeight, int plainWeight) {
+
+        // sizes roughly matching the preset repositories of the GUI
+        public static final Shape COMMONS_LANG = new Shape("commons-lang", 1, 220, 18, 60, 5, 5, 30);
+        public static final Shape JUNIT5 = new Shape("junit5", 20, 1_100, 10, 5, 45, 5, 45);
+        public static final Shape GUAVA = new Shape("guava", 4, 2_000, 14, 70, 5, 5, 20);
+        public static final Shape SPRING_FRAMEWORK = new Shape("spring-framework", 25, 5_000, 9, 10, 30, 5, 55);
+        public static final Shape SPRING_BOOT = new Shape("spring-boot", 120, 7_500, 7, 5, 40, 10, 45);
+
+        public static final List<Shape> PRESETS = List.of(COMMONS_LANG, JUNIT5, GUAVA, SPRING_FRAMEWORK, SPRING_BOOT);
+
+        public static Shape preset(String name) {
+            return PRESETS.stream()
+                    .filter(s -> s.name.equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown shape: " + name + " (expected one of " +
+                            PRESETS.stream().map(Shape::name).toList() + ")"));
+        }
+    }
+
+    private SyntheticProject() {
+    }
+
+    /**
+     * Writes the project described by {@code shape} under {@code root} (which must not contain a
+     * previous tree) and returns the number of files written.
+     */
+    public static int generate(Shape shape, Path root) {
+        Random random = new Random(shape.hashCode());
+        int files = 0;
+        try {
+            for (int c = 0; c < shape.testClasses(); c++) {
+                String module = "module-" + (c % shape.modules());
+                String pkg = "com.example." + DOMAINS[c % DOMAINS.length];
+                String className = SUBJECTS[random.nextInt(SUBJECTS.length)]
+                        + OBJECTS[random.nextInt(OBJECTS.length)] + c;
+
+                String[] sourceMethods = sourceMethods(random);
+                write(root.resolve(module).resolve("src/main/java"), pkg, className, sourceClass(pkg, className, sourceMethods));
+                write(root.resolve(module).resolve("src/test/java"), pkg, className + "Test",
+                        testClass(pkg, className, sourceMethods, shape, random));
+                files += 2;
+
+                if (c < shape.modules()) { // first class of each module
+                    Files.writeString(root.resolve(module).resolve("pom.xml"), "<project/>\n");
+                    files++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private static void write(Path sourceRoot, String pkg, String className, String content) throws IOException {
+        Path dir = sourceRoot.resolve(pkg.replace('.', '/'));
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(className + ".java"), content);
+    }
+
+    private static String[] sourceMethods(Random random) {
+        Set<String> names = new HashSet<>();
+        int count = 3 + random.nextInt(8);
+        while (names.size() < count) {
+            names.add(ACTIONS[random.nextInt(ACTIONS.length)] + OBJECTS[random.nextInt(OBJECTS.length)]);
+        }
+        return names.toArray(String[]::new);
+    }
+
+    private static String sourceClass(String pkg, String className, String[] methods) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import java.util.Objects;\n\n");
+        sb.append("/**\n * Generated production class.\n */\n");
+        sb.append("public class ").append(className).append(" {\n\n");
+        sb.append("    private String value;\n\n");
+        for (String m : methods) {
+            sb.append("    public String ").append(m).append("(String input) {\n");
+            sb.append("        Objects.requireNonNull(input, \"input\");\n");
+            sb.append("        return value == null ? input : value + input;\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("    private void reset() {\n        value = null;\n    }\n}\n");
+        return sb.toString();
+    }
+
+    private static String testClass(String pkg, String className, String[] sourceMethods, Shape shape, Random random) {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import org.junit.jupiter.api.BeforeEach;\n");
+        sb.append("import org.junit.jupiter.api.DisplayName;\n");
+        sb.append("import org.junit.jupiter.api.Test;\n");
+        sb.append("import org.junit.jupiter.params.ParameterizedTest;\n");
+        sb.append("import org.junit.jupiter.params.provider.ValueSource;\n\n");
+        sb.append("import static org.junit.jupiter.api.Assertions.*;\n\n");
+        sb.append("class ").append(className).append("Test {\n\n");
+        sb.append("    private ").append(className).append(" subject;\n\n");
+        sb.append("    @BeforeEach\n    void setUp() {\n        subject = new ").append(className).append("();\n    }\n\n");
+
+        int methods = 1 + random.nextInt(2 * shape.methodsPerTestClass());
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < methods; i++) {
+            String name = methodName(shape, sourceMethods, random);
+            if (!used.add(name)) name = name + i;
+
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                sb.append("    @DisplayName(\"").append(name).append(" works\")\n");
+            }
+            if (kind == 1) {
+                sb.append("    @ParameterizedTest\n    @ValueSource(strings = {\"a\", \"b\"})\n");
+                sb.append("    void ").append(name).append("(String input) {\n");
+            } else {
+                sb.append("    @Test\n    void ").append(name).append("() {\n");
+                sb.append("        String input = \"value-").append(i).append("\";\n");
+            }
+            String target = sourceMethods[random.nextInt(sourceMethods.length)];
+            sb.append("        String result = subject.").append(target).append("(input);\n");
+            sb.append("        assertNotNull(result);\n");
+            sb.append("        assertEquals(input, result, () -> \"unexpected result of ").append(target).append("\");\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String methodName(Shape shape, String[] sourceMethods, Random random) {
+        int total = shape.testPrefixWeight() + shape.bddWeight() + shape.snakeWeight() + shape.plainWeight();
+        int pick = random.nextInt(total);
+        String action = ACTIONS[random.nextInt(ACTIONS.length)];
+        String object = OBJECTS[random.nextInt(OBJECTS.length)];
+        String outcome = OUTCOMES[random.nextInt(OUTCOMES.length)];
+        String condition = CONDITIONS[random.nextInt(CONDITIONS.length)];
+
+        if ((pick -= shape.testPrefixWeight()) < 0) {
+            return "test" + capitalize(action) + object + (random.nextBoolean() ? "" : "_" + condition);
+        }
+        if ((pick -= shape.bddWeight()) < 0) {
+            return random.nextBoolean()
+                    ? "should" + outcome + "When" + condition
+                    : "given" + condition + "_when" + capitalize(action) + object + "_then" + outcome;
+        }
+        if ((pick -= shape.snakeWeight()) < 0) {
+            return (action + "_" + object + "_" + outcome.replaceAll("(?<=[a-z])(?=[A-Z])", "_")).toLowerCase();
+        }
+        return random.nextInt(3) == 0
+                ? sourceMethods[random.nextInt(sourceMethods.length)]
+                : action + object + outcome;
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}
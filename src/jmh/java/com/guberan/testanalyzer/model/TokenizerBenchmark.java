@@ -0,0 +1,60 @@
+package com.guberan.testanalyzer.model;
+
+import com.guberan.testanalyzer.bench.MethodNameCorpus;
+import com.guberan.testanalyzer.util.MethodNameTokens;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizer and pattern hot paths of {@link MethodNameTokens}, {@link TokenModel} and {@link PhrasePatternModel}.
+ * Scores are per method name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(TokenizerBenchmark.CORPUS_SIZE)
+public class TokenizerBenchmark {
+
+    static final int CORPUS_SIZE = 1024;
+
+    private final MethodNameTokens tokens = new MethodNameTokens();
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = MethodNameCorpus.names(CORPUS_SIZE);
+    }
+
+    @Benchmark
+    public void tokenModelTokenize(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(TokenModel.tokenize(name));
+        }
+    }
+
+    @Benchmark
+    public void split(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(tokens.split(name).size());
+        }
+    }
+
+    @Benchmark
+    public void splitWords(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(tokens.splitWords(name).size());
+        }
+    }
+
+    @Benchmark
+    public void phraseToPattern(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(PhrasePatternModel.toPattern(tokens.split(name), false));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.bench.MethodNameCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TestAnalyzer.PatternStats#accept}, fed every test method during analysis.
+ * Each invocation starts from empty stats; scores are per method name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(PatternStatsBenchmark.CORPUS_SIZE)
+public class PatternStatsBenchmark {
+
+    static final int CORPUS_SIZE = 1024;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = MethodNameCorpus.names(CORPUS_SIZE);
+    }
+
+    @Benchmark
+    public Object accept() {
+        TestAnalyzer.PatternStats stats = new TestAnalyzer.PatternStats();
+        for (String name : names) {
+            stats.accept(name);
+        }
+        return stats;
+    }
+}
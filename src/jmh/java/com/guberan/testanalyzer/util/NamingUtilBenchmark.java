@@ -0,0 +1,51 @@
+package com.guberan.testanalyzer.util;
+
+import com.guberan.testanalyzer.bench.MethodNameCorpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Naming heuristics of {@link NamingUtil}, evaluated once per test method by the naming report.
+ * Scores are per method name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(NamingUtilBenchmark.CORPUS_SIZE)
+public class NamingUtilBenchmark {
+
+    static final int CORPUS_SIZE = 1024;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = MethodNameCorpus.names(CORPUS_SIZE);
+    }
+
+    @Benchmark
+    public void isBDDLike(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(NamingUtil.isBDDLike(name));
+        }
+    }
+
+    @Benchmark
+    public void isPhraseLike(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(NamingUtil.isPhraseLike(name));
+        }
+    }
+
+    @Benchmark
+    public void followsWhenThen(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(NamingUtil.followsWhenThen(name));
+        }
+    }
+}
@@ -1,12 +1,34 @@
 package com.guberan.testanalyzer;
 
 import com.formdev.flatlaf.FlatLightLaf;
+import com.guberan.testanalyzer.cli.AnalysisServer;
+import com.guberan.testanalyzer.cli.BatchAnalyzer;
+import com.guberan.testanalyzer.cli.HistoryCommand;
 import com.guberan.testanalyzer.gui.MainFrame;
+import com.guberan.testanalyzer.service.ShardWorker;
 
 import javax.swing.*;
 
 public class App {
+    /**
+     * Opens the GUI, runs the {@link AnalysisServer} ({@code --serve}), analyzes the history of a
+     * repository ({@code --history}, see {@link HistoryCommand}), serves a coordinator as a worker
+     * process ({@code --worker}, see {@link ShardWorker}), or analyzes the repositories
+     * given as arguments without a GUI (see {@link BatchAnalyzer}).
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            System.exit(AnalysisServer.run(args));
+        }
+        if (args.length > 0 && "--history".equals(args[0])) {
+            System.exit(HistoryCommand.run(args));
+        }
+        if (args.length > 0 && "--worker".equals(args[0])) {
+            System.exit(ShardWorker.run());
+        }
+        if (args.length > 0) {
+            System.exit(BatchAnalyzer.run(args));
+        }
         System.setProperty("apple.laf.useScreenMenuBar", "true");
         System.setProperty("java.net.useSystemProxies", "true");
         SwingUtilities.invokeLater(() -> {
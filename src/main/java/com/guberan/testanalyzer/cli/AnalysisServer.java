@@ -0,0 +1,217 @@
+package com.guberan.testanalyzer.cli;
+
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+import com.guberan.testanalyzer.model.ReportExporter;
+import com.guberan.testanalyzer.service.ParseCache;
+import com.guberan.testanalyzer.service.TestAnalyzer;
+import com.guberan.testanalyzer.util.StringUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Local HTTP server keeping analyzers warm between requests, for IDE plugins and CI jobs
+ * that would otherwise pay the JVM start-up and JIT warm-up on every analysis.
+ * <p>
+ * Usage: {@code java -jar test-convention-analyzer.jar --serve [--port 7341] [--jobs N]}. Endpoints
+ * (loopback only):
+ * <ul>
+ *   <li>{@code GET /analyze?root=<path>[&engine=AST|SCANNER]}: the {@link ProjectAnalysis} as JSON</li>
+ *   <li>{@code GET /health}: {@code ok}</li>
+ * </ul>
+ * Each (root, engine) keeps an incremental {@link TestAnalyzer}, so a repeated request only
+ * re-parses the files changed since the previous one. Concurrent requests for the same
+ * (root, engine) share a single in-flight analysis.
+ */
+@Slf4j
+public class AnalysisServer {
+
+    static final int DEFAULT_PORT = 7341;
+
+    /**
+     * Warm analyzers kept at once; the least recently used one is dropped beyond that.
+     */
+    private static final int MAX_ANALYZERS = 16;
+
+    private final ExecutorService analyses;
+    private final int parallelism;
+    private final Map<Key, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, TestAnalyzer> analyzers = new LinkedHashMap<>(MAX_ANALYZERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, TestAnalyzer> eldest) {
+            return size() > MAX_ANALYZERS;
+        }
+    };
+
+    AnalysisServer(int jobs) {
+        this.analyses = Executors.newFixedThreadPool(jobs);
+        this.parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / jobs);
+    }
+
+    /**
+     * Starts the server and blocks until the JVM exits.
+     *
+     * @return {@code 2} on invalid arguments or if the port cannot be bound
+     */
+    public static int run(String[] args) {
+        int port = DEFAULT_PORT;
+        int jobs = Math.min(4, Runtime.getRuntime().availableProcessors());
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--serve" -> {
+                    }
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--jobs" -> jobs = Math.max(1, Integer.parseInt(args[++i]));
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --serve [--port N] [--jobs N]");
+            return 2;
+        }
+
+        try {
+            new AnalysisServer(jobs).start(port);
+        } catch (IOException e) {
+            System.err.println("Cannot listen on port " + port + ": " + e.getMessage());
+            return 2;
+        }
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/analyze", this::handleAnalyze);
+        server.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok"));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        log.info("Analysis server listening on http://{}:{}/", server.getAddress().getHostString(), server.getAddress().getPort());
+        return server;
+    }
+
+    private void handleAnalyze(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String root = query.get("root");
+        if (root == null || root.isBlank()) {
+            respond(exchange, 400, "application/json", error("missing 'root' parameter"));
+            return;
+        }
+        Path projectRoot = Path.of(root).toAbsolutePath().normalize();
+        if (!Files.isDirectory(projectRoot)) {
+            respond(exchange, 400, "application/json", error("not a directory: " + projectRoot));
+            return;
+        }
+        TestAnalyzer.ExtractionEngine engine;
+        try {
+            engine = TestAnalyzer.ExtractionEngine.valueOf(query.getOrDefault("engine", "SCANNER").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "application/json", error("unknown engine: " + query.get("engine")));
+            return;
+        }
+
+        try {
+            respond(exchange, 200, "application/json", analyze(new Key(projectRoot, engine)).join());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("Analysis of {} failed: {}", projectRoot, cause.getMessage());
+            respond(exchange, 500, "application/json", error(String.valueOf(cause.getMessage())));
+        }
+    }
+
+    /**
+     * @return the in-flight analysis of {@code key}, or a new one if none is running
+     */
+    CompletableFuture<String> analyze(Key key) {
+        CompletableFuture<String> started = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, started);
+        if (running != null) return running;
+
+        analyses.execute(() -> {
+            try {
+                started.complete(toJson(analyzerFor(key).analyze(key.root(), progress -> {
+                })));
+            } catch (Throwable t) {
+                // Errors too (e.g. a StackOverflowError parsing deeply nested code): callers must not wait forever
+                started.completeExceptionally(t);
+            } finally {
+                inFlight.remove(key, started);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * Only one analysis of a key runs at a time (see {@link #analyze(Key)}), so the analyzer
+     * is never used concurrently.
+     */
+    private TestAnalyzer analyzerFor(Key key) {
+        synchronized (analyzers) {
+            return analyzers.computeIfAbsent(key, k -> {
+                TestAnalyzer analyzer = new TestAnalyzer();
+                analyzer.setIncremental(true);
+                analyzer.setParallelism(parallelism);
+                analyzer.setEngine(k.engine());
+                analyzer.setCacheDir(ParseCache.defaultDirectory());
+                return analyzer;
+            });
+        }
+    }
+
+    static String toJson(ProjectAnalysis analysis) {
+        StringWriter json = new StringWriter(16 * 1024);
+        try {
+            new ReportExporter(analysis).writeJson(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringWriter does not throw
+        }
+        return json.toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + StringUtil.jsonString(message) + "}";
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    record Key(Path root, TestAnalyzer.ExtractionEngine engine) {
+    }
+}
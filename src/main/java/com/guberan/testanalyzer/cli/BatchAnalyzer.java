@@ -0,0 +1,297 @@
+package com.guberan.testanalyzer.cli;
+
+import com.guberan.testanalyzer.model.AnalysisCodec;
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+import com.guberan.testanalyzer.model.ReportExporter;
+import com.guberan.testanalyzer.service.ParseCache;
+import com.guberan.testanalyzer.service.TestAnalyzer;
+import com.guberan.testanalyzer.util.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless mode: analyzes many local repositories concurrently and writes one CSV per
+ * repository (with the full token and pattern tables) plus a {@code comparison.csv} with one row
+ * per repository.
+ * <p>
+ * Usage:
+ * <pre>
+ *   java -jar test-convention-analyzer.jar [--jobs N] [--out DIR] [--manifest FILE]
+ *                                          [--engine AST|SCANNER] [--modules] [--workers N] [--json] [--binary] [path...]
+ * </pre>
+ * The manifest lists one path per line; blank lines and lines starting with {@code #} are ignored.
+ * At most {@code jobs} repositories are analyzed at once (default: up to 4), each with its share
+ * of the processors. Test files are extracted with the {@code SCANNER} engine unless told otherwise.
+ * With {@code --modules}, the reports of each Maven/Gradle module are also written to
+ * {@code <repository>.modules.csv}. With {@code --workers}, the test files of each repository
+ * are extracted by that many worker processes (for repositories too large for one heap). With
+ * {@code --json}, the reports are also written to {@code <repository>.json}. With
+ * {@code --binary}, each analysis is also saved to {@code <repository>.tca}, which the GUI opens.
+ */
+@Slf4j
+public class BatchAnalyzer {
+
+    static final String COMPARISON_FILE = "comparison.csv";
+
+    private final List<Path> repositories = new ArrayList<>();
+    private Path outDir = Path.of("analysis-results");
+    private int jobs = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private TestAnalyzer.ExtractionEngine engine = TestAnalyzer.ExtractionEngine.SCANNER;
+    private boolean modules;
+    private int workerProcesses;
+    private boolean json;
+    private boolean binary;
+
+    /**
+     * @return the process exit code: {@code 0} if every repository was analyzed, {@code 1} if
+     * some failed, {@code 2} on invalid arguments
+     */
+    public static int run(String[] args) {
+        BatchAnalyzer batch = new BatchAnalyzer();
+        try {
+            batch.parseArgs(args);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: [--jobs N] [--out DIR] [--manifest FILE] [--engine AST|SCANNER] [--modules] [--workers N] [--json] [--binary] [path...]");
+            return 2;
+        }
+        return batch.analyzeAll() ? 0 : 1;
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                repositories.add(Path.of(arg));
+                continue;
+            }
+            if (arg.equals("--modules")) {
+                modules = true;
+                continue;
+            }
+            if (arg.equals("--json")) {
+                json = true;
+                continue;
+            }
+            if (arg.equals("--binary")) {
+                binary = true;
+                continue;
+            }
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--jobs" -> jobs = Math.max(1, Integer.parseInt(value));
+                case "--out" -> outDir = Path.of(value);
+                case "--manifest" -> repositories.addAll(readManifest(Path.of(value)));
+                case "--engine" -> engine = TestAnalyzer.ExtractionEngine.valueOf(value.toUpperCase(Locale.ROOT));
+                case "--workers" -> workerProcesses = Math.max(0, Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (repositories.isEmpty()) throw new IllegalArgumentException("No repository to analyze");
+    }
+
+    static List<Path> readManifest(Path manifest) {
+        try {
+            return Files.readAllLines(manifest).stream()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(Path::of)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read manifest " + manifest + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return {@code true} if every repository was analyzed
+     */
+    private boolean analyzeAll() {
+        try {
+            Files.createDirectories(outDir);
+        } catch (IOException e) {
+            log.error("Cannot create output directory {}: {}", outDir, e.getMessage());
+            return false;
+        }
+
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / jobs);
+        List<String> names = uniqueNames(repositories);
+        log.info("Analyzing {} repositories, {} at a time ({} threads each) into {}",
+                repositories.size(), jobs, parallelism, outDir);
+
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        AtomicInteger done = new AtomicInteger();
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < repositories.size(); i++) {
+                Path repository = repositories.get(i);
+                String name = names.get(i);
+                futures.add(executor.submit(() -> {
+                    Result result = analyze(name, repository, parallelism);
+                    log.info("[{}/{}] {}: {}", done.incrementAndGet(), repositories.size(), name,
+                            result.error() == null ? result.wallMs() + " ms" : "FAILED " + result.error());
+                    return result;
+                }));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            writeComparison(results);
+            return results.stream().allMatch(r -> r.error() == null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Batch analysis failed", e.getCause());
+            return false;
+        } catch (UncheckedIOException e) {
+            log.error(e.getMessage());
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result analyze(String name, Path repository, int parallelism) {
+        long start = System.nanoTime();
+        try {
+            if (!Files.isDirectory(repository)) throw new IllegalArgumentException("not a directory");
+            TestAnalyzer analyzer = new TestAnalyzer();
+            analyzer.setParallelism(parallelism);
+            analyzer.setEngine(engine);
+            analyzer.setCacheDir(ParseCache.defaultDirectory());
+            analyzer.setModules(modules);
+            analyzer.setWorkerProcesses(workerProcesses);
+            ProjectAnalysis analysis = analyzer.analyze(repository, progress -> {
+            });
+            ReportExporter exporter = analyzer.exporter(analysis);
+            export(outDir.resolve(name + ".csv"), exporter::writeCsv);
+            if (modules) export(outDir.resolve(name + ".modules.csv"), exporter::writeModulesCsv);
+            if (json) export(outDir.resolve(name + ".json"), exporter::writeJson);
+            if (binary) save(outDir.resolve(name + ".tca"), analysis);
+            return new Result(name, repository, analysis, (System.nanoTime() - start) / 1_000_000, null);
+        } catch (RuntimeException | Error e) {
+            // one repository (e.g. a StackOverflowError on deeply nested code) must not fail the whole batch
+            log.debug("Analysis of {} failed", repository, e);
+            String error = e.getMessage() != null ? e.getMessage() : e.toString();
+            return new Result(name, repository, null, (System.nanoTime() - start) / 1_000_000, error);
+        }
+    }
+
+    /**
+     * Output file names: the directory name, suffixed with the first free {@code -N} when
+     * another repository already has it (including as a suffixed name: {@code foo-2} may be a directory).
+     */
+    static List<String> uniqueNames(List<Path> repositories) {
+        Set<String> issued = new HashSet<>();
+        List<String> names = new ArrayList<>();
+        for (Path repository : repositories) {
+            Path fileName = repository.toAbsolutePath().normalize().getFileName();
+            String base = fileName == null ? "root" : fileName.toString();
+            String name = base;
+            for (int n = 2; !issued.add(name); n++) name = base + "-" + n;
+            names.add(name);
+        }
+        return names;
+    }
+
+    private interface Export {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    /**
+     * Streams an export to {@code file}, row by row: the full token and pattern tables of a large
+     * repository are never held in memory as text.
+     */
+    private static void export(Path file, Export export) {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            export.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void save(Path file, ProjectAnalysis analysis) {
+        try {
+            AnalysisCodec.save(analysis, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * One row per repository: size, timing, and the share of test methods matching each
+     * naming convention, so repositories can be compared side by side.
+     */
+    private void writeComparison(List<Result> results) {
+        List<String> namingColumns = results.stream()
+                .map(r -> naming(r.analysis()))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(report -> report.getItems().stream().map(ProjectAnalysis.MetricRecord::getName).toList())
+                .orElse(List.of());
+
+        StringBuilder sb = new StringBuilder("repository,path,status,wall_ms,java_tests,test_methods");
+        namingColumns.forEach(column -> sb.append(',').append(StringUtil.csvField(column + " %")));
+        sb.append('\n');
+
+        for (Result r : results) {
+            sb.append(StringUtil.csvField(r.name())).append(',')
+                    .append(StringUtil.csvField(r.repository().toString())).append(',')
+                    .append(StringUtil.csvField(r.error() == null ? "ok" : "failed: " + r.error())).append(',')
+                    .append(r.wallMs()).append(',')
+                    .append(count(r.analysis(), ProjectAnalysis.ReportId.SRC_VS_TEST, "Java tests")).append(',')
+                    .append(count(r.analysis(), ProjectAnalysis.ReportId.TEST_METHOD_NAMING, "All tests"));
+            ProjectAnalysis.MetricsReport naming = naming(r.analysis());
+            for (String column : namingColumns) {
+                sb.append(',');
+                if (naming == null) continue;
+                naming.getItems().stream()
+                        .filter(item -> item.getName().equals(column))
+                        .findFirst()
+                        .ifPresent(item -> sb.append(percent(item.getPercent())));
+            }
+            sb.append('\n');
+        }
+        write(outDir.resolve(COMPARISON_FILE), sb);
+    }
+
+    private static ProjectAnalysis.MetricsReport naming(ProjectAnalysis analysis) {
+        return analysis == null ? null : analysis.getReports().get(ProjectAnalysis.ReportId.TEST_METHOD_NAMING);
+    }
+
+    private static String count(ProjectAnalysis analysis, ProjectAnalysis.ReportId id, String item) {
+        if (analysis == null || analysis.getReports().get(id) == null) return "";
+        return analysis.getReports().get(id).getItems().stream()
+                .filter(record -> record.getName().equals(item))
+                .findFirst()
+                .map(record -> Long.toString(record.getCount()))
+                .orElse("");
+    }
+
+    static String percent(float ratio) {
+        if (Float.isNaN(ratio)) return "";
+        return String.format(Locale.ROOT, "%.1f", ratio * 100);
+    }
+
+    private static void write(Path file, CharSequence content) {
+        try {
+            Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record Result(String name, Path repository, ProjectAnalysis analysis, long wallMs, String error) {
+    }
+}
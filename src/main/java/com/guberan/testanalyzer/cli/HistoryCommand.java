@@ -0,0 +1,144 @@
+package com.guberan.testanalyzer.cli;
+
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+import com.guberan.testanalyzer.service.GitService;
+import com.guberan.testanalyzer.service.HistoryAnalyzer;
+import com.guberan.testanalyzer.service.TestAnalyzer;
+import com.guberan.testanalyzer.util.PathUtil;
+import com.guberan.testanalyzer.util.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.Constants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Headless history mode: how the naming conventions of one repository evolved over time.
+ * <p>
+ * Usage:
+ * <pre>
+ *   java -jar test-convention-analyzer.jar --history REPOSITORY [--by commit|day|week|month]
+ *                                          [--samples N] [--revision REV] [--engine AST|SCANNER]
+ *                                          [--jobs N] [--out FILE]
+ * </pre>
+ * {@code REPOSITORY} is a local repository (working tree or git directory) or a URL, cloned
+ * with its full history (of every branch when {@code --revision} is given) into a temporary
+ * directory deleted afterwards. Writes one row per (commit, report item) to {@code history.csv}
+ * (default), oldest commit first. See {@link HistoryAnalyzer}.
+ */
+@Slf4j
+public class HistoryCommand {
+
+    /**
+     * @return the process exit code: {@code 0} on success, {@code 1} if the analysis failed,
+     * {@code 2} on invalid arguments
+     */
+    public static int run(String[] args) {
+        HistoryAnalyzer history = new HistoryAnalyzer();
+        String repository = null;
+        String revision = Constants.HEAD;
+        Path out = Path.of("history.csv");
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + arg);
+                String value = args[++i];
+                switch (arg) {
+                    case "--history" -> repository = value;
+                    case "--by" -> history.setSampling(HistoryAnalyzer.Sampling.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "--samples" -> history.setMaxSamples(Math.max(1, Integer.parseInt(value)));
+                    case "--revision" -> revision = value;
+                    case "--engine" -> history.setEngine(TestAnalyzer.ExtractionEngine.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "--jobs" -> history.setParallelism(Math.max(1, Integer.parseInt(value)));
+                    case "--out" -> out = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --history REPOSITORY [--by commit|day|week|month] [--samples N] [--revision REV]"
+                    + " [--engine AST|SCANNER] [--jobs N] [--out FILE]");
+            return 2;
+        }
+
+        Path clone = null;
+        try {
+            Path gitDir = localGitDir(repository);
+            if (gitDir == null) gitDir = clone = cloneFull(repository, !revision.equals(Constants.HEAD));
+            List<HistoryAnalyzer.Snapshot> snapshots = history.analyze(gitDir, revision, progress -> {
+            });
+            for (HistoryAnalyzer.Snapshot snapshot : snapshots) {
+                log.info("{} {}: {} files read, {} ms", snapshot.commit().substring(0, 10),
+                        snapshot.time().atOffset(ZoneOffset.UTC).toLocalDate(), snapshot.filesRead(), snapshot.wallMs());
+            }
+            write(out, snapshots);
+            log.info("Wrote {} snapshots to {}", snapshots.size(), out);
+            return 0;
+        } catch (RuntimeException e) {
+            log.error("History analysis of {} failed: {}", repository, e.getMessage());
+            return 1;
+        } finally {
+            if (clone != null) deleteClone(clone);
+        }
+    }
+
+    /**
+     * @return the git directory of a local repository, or {@code null} if {@code repository} is not a directory
+     */
+    private static Path localGitDir(String repository) {
+        Path local = Path.of(repository);
+        if (!Files.isDirectory(local)) return null;
+        Path dotGit = local.resolve(Constants.DOT_GIT);
+        return Files.isDirectory(dotGit) ? dotGit : local;
+    }
+
+    /**
+     * Clones the full history of a URL into a temporary directory, deleted once the analysis is done.
+     *
+     * @param allBranches whether to fetch every branch (and the tags on them), for a {@code --revision}
+     *                    that may not be on the default branch
+     * @return the git directory of the clone
+     */
+    private static Path cloneFull(String url, boolean allBranches) {
+        GitService git = new GitService();
+        git.setDepth(0); // every sampled commit must be there
+        git.setSingleBranch(!allBranches);
+        return git.cloneBare(url);
+    }
+
+    private static void deleteClone(Path clone) {
+        try {
+            PathUtil.deleteTree(clone);
+        } catch (IOException e) {
+            log.warn("Could not delete the temporary clone {}: {}", clone, e.getMessage());
+        }
+    }
+
+    private static void write(Path file, List<HistoryAnalyzer.Snapshot> snapshots) {
+        StringBuilder sb = new StringBuilder("commit,date,report,item,count,percent\n");
+        for (HistoryAnalyzer.Snapshot snapshot : snapshots) {
+            String date = snapshot.time().atOffset(ZoneOffset.UTC).toLocalDate().toString();
+            for (ProjectAnalysis.MetricsReport report : snapshot.analysis().getReports().values().stream().sorted().toList()) {
+                if (report.getId() == ProjectAnalysis.ReportId.METRICS) continue;
+                for (ProjectAnalysis.MetricRecord item : report.getItems()) {
+                    sb.append(snapshot.commit()).append(',')
+                            .append(date).append(',')
+                            .append(report.getId()).append(',')
+                            .append(StringUtil.csvField(item.getName())).append(',')
+                            .append(item.getCount()).append(',')
+                            .append(BatchAnalyzer.percent(item.getPercent())).append('\n');
+                }
+            }
+        }
+        try {
+            Files.writeString(file, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
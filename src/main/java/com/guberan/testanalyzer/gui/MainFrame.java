@@ -1,10 +1,21 @@
 package com.guberan.testanalyzer.gui;
 
+import com.guberan.testanalyzer.model.AnalysisCodec;
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class MainFrame extends JFrame {
 
+    private static final String EXTENSION = "tca";
+
+    private final ResultsPanel resultsPanel = new ResultsPanel();
+    private ProjectAnalysis analysis;
+
     public MainFrame() {
         super("Test Convention Analyzer");
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
@@ -22,12 +33,64 @@ public class MainFrame extends JFrame {
         }
 
         var runPanel = new RunPanel();
-        var resultsPanel = new ResultsPanel();
-
-        runPanel.setOnResults(resultsPanel::setResults);
+        runPanel.setOnResults(this::show);
+        setJMenuBar(menuBar());
 
         setLayout(new BorderLayout(8, 8));
         add(runPanel, BorderLayout.NORTH);
         add(resultsPanel, BorderLayout.CENTER);
     }
-}
\ No newline at end of file
+
+    private void show(ProjectAnalysis analysis) {
+        this.analysis = analysis;
+        resultsPanel.setResults(analysis);
+    }
+
+    private JMenuBar menuBar() {
+        JMenuItem open = new JMenuItem("Open Analysis…");
+        open.addActionListener(e -> openAnalysis());
+        JMenuItem save = new JMenuItem("Save Analysis…");
+        save.addActionListener(e -> saveAnalysis());
+
+        JMenu file = new JMenu("File");
+        file.add(open);
+        file.add(save);
+        JMenuBar bar = new JMenuBar();
+        bar.add(file);
+        return bar;
+    }
+
+    private JFileChooser chooser() {
+        var chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Test analyses (*." + EXTENSION + ")", EXTENSION));
+        return chooser;
+    }
+
+    private void openAnalysis() {
+        var chooser = chooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            show(AnalysisCodec.load(chooser.getSelectedFile().toPath()));
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot open analysis: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void saveAnalysis() {
+        if (analysis == null) {
+            JOptionPane.showMessageDialog(this, "Run or open an analysis first.", "Save Analysis", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        var chooser = chooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        if (!file.getFileName().toString().endsWith("." + EXTENSION)) {
+            file = file.resolveSibling(file.getFileName() + "." + EXTENSION);
+        }
+        try {
+            AnalysisCodec.save(analysis, file);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot save analysis: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.guberan.testanalyzer.model.ProjectAnalysis;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Map;
 
 /**
  * Swing panel responsible for presenting analysis results.
@@ -26,6 +27,12 @@ public class ResultsPanel extends JPanel {
     // Text areas
     private final JTextArea summaryArea = new JTextArea();
 
+    // Per-module reports: a module selector above the report tabs of the selected module
+    private static final String MODULES_TAB = "By module";
+    private final JComboBox<String> moduleBox = new JComboBox<>();
+    private final JTabbedPane moduleTabs = new JTabbedPane();
+    private final JPanel modulesPanel = new JPanel(new BorderLayout(8, 8));
+    private Map<String, ProjectAnalysis> modules = Map.of();
 
     /**
      * Creates the results panel and initializes all Swing components.
@@ -44,6 +51,12 @@ public class ResultsPanel extends JPanel {
 
         tabs.addTab("Summary", tabWithNotes(summaryNotes, new JScrollPane(summaryArea)));
 
+        JPanel moduleRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        moduleRow.add(new JLabel("Module:"));
+        moduleRow.add(moduleBox);
+        modulesPanel.add(moduleRow, BorderLayout.NORTH);
+        modulesPanel.add(moduleTabs, BorderLayout.CENTER);
+        moduleBox.addActionListener(e -> showModule((String) moduleBox.getSelectedItem()));
 
         add(tabs, BorderLayout.CENTER);
 
@@ -112,5 +125,33 @@ public class ResultsPanel extends JPanel {
         for (ProjectAnalysis.MetricsReport report : projectAnalysis.getReports().values().stream().sorted().toList()) {
             insertReportTab(report);
         }
+        setModules(projectAnalysis.getModules());
+    }
+
+    /**
+     * Shows the "By module" tab when the analysis was sharded by module, else removes it.
+     */
+    private void setModules(Map<String, ProjectAnalysis> modules) {
+        this.modules = modules;
+        int index = tabs.indexOfTab(MODULES_TAB);
+        if (modules.isEmpty()) {
+            if (index >= 0) tabs.remove(index);
+            return;
+        }
+        moduleBox.setModel(new DefaultComboBoxModel<>(modules.keySet().toArray(String[]::new)));
+        showModule((String) moduleBox.getSelectedItem());
+        if (index < 0) tabs.addTab(MODULES_TAB, modulesPanel);
+    }
+
+    private void showModule(String module) {
+        int selected = moduleTabs.getSelectedIndex();
+        moduleTabs.removeAll();
+        ProjectAnalysis analysis = module == null ? null : modules.get(module);
+        if (analysis == null) return;
+        for (ProjectAnalysis.MetricsReport report : analysis.getReports().values().stream().sorted().toList()) {
+            moduleTabs.addTab(report.getName(), new MetricsReportPanel(report));
+        }
+        // keep the same report in view when switching modules
+        if (selected >= 0 && selected < moduleTabs.getTabCount()) moduleTabs.setSelectedIndex(selected);
     }
 }
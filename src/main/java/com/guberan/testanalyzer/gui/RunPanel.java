@@ -1,11 +1,15 @@
 package com.guberan.testanalyzer.gui;
 
 import com.guberan.testanalyzer.model.ProjectAnalysis;
-import com.guberan.testanalyzer.service.GitService;
+import com.guberan.testanalyzer.service.AnalysisMetrics;
+import com.guberan.testanalyzer.service.CloneCache;
+import com.guberan.testanalyzer.service.GitTreeSource;
+import com.guberan.testanalyzer.service.ParseCache;
 import com.guberan.testanalyzer.service.TestAnalyzer;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.miginfocom.swing.MigLayout;
+import org.eclipse.jgit.lib.Constants;
 
 import javax.swing.*;
 import java.awt.*;
@@ -45,12 +49,14 @@ public class RunPanel extends JPanel {
     // Persist last used values between runs
     private static final Preferences PREFS = Preferences.userNodeForPackage(RunPanel.class);
     private static final String KEY_LAST_PATH = "lastLocalPath";
+    private static final String KEY_FAST_SCAN = "fastScan";
     private final JComboBox<String> presetCombo = new JComboBox<>();
     private final JButton urlMenuBtn = new JButton("▼");
     private final JPopupMenu urlMenu = new JPopupMenu();
     private final JTextField urlField = new JTextField();
     private final JTextField pathField = new JTextField(); // /Volumes/Datamag/IdeaProjects/junit-framework"); /Volumes/Datamag/IdeaProjects/spring-boot
     private final JButton browseBtn = new JButton("Browse…");
+    private final JCheckBox fastScanBox = new JCheckBox("Fast scan (token scanner instead of full parse)");
     private final JButton analyzeBtn = new JButton("Analyze");
     private final JProgressBar progress = new JProgressBar();
     private final JLabel status = new JLabel("Ready.");
@@ -61,6 +67,10 @@ public class RunPanel extends JPanel {
     private Consumer<ProjectAnalysis> onResults = s -> {
     };
 
+    // analyzer of the last run, reused (incrementally) when the same root is analyzed again
+    private TestAnalyzer analyzer;
+    private Path analyzerRoot;
+
     public RunPanel() {
         initComponents();
         buildLayout();
@@ -80,8 +90,11 @@ public class RunPanel extends JPanel {
 
         setupUrlMenu();
 
+        fastScanBox.setToolTipText("Extracts test methods with a lightweight scanner; falls back to the full parser on ambiguous syntax");
+
         // restore last used values
         pathField.setText(PREFS.get(KEY_LAST_PATH, ""));
+        fastScanBox.setSelected(PREFS.getBoolean(KEY_FAST_SCAN, false));
     }
 
     private void setupUrlMenu() {
@@ -108,6 +121,8 @@ public class RunPanel extends JPanel {
         add(urlField, "cell 1 0");
         add(urlMenuBtn, "cell 2 0");
 
+        add(fastScanBox, "cell 1 1");
+
         add(new JLabel("Local Path:"), "cell 0 2");
         add(pathField, "cell 1 2");
         add(browseBtn, "cell 2 2, width :100:");
@@ -123,6 +138,7 @@ public class RunPanel extends JPanel {
     private void wireActions() {
         browseBtn.addActionListener(e -> chooseDir());
         analyzeBtn.addActionListener(e -> runAnalysis());
+        fastScanBox.addActionListener(e -> PREFS.putBoolean(KEY_FAST_SCAN, fastScanBox.isSelected()));
 
         presetCombo.addActionListener(e -> {
             String key = (String) presetCombo.getSelectedItem();
@@ -155,6 +171,7 @@ public class RunPanel extends JPanel {
 
         var url = Optional.ofNullable(urlField.getText()).map(String::trim).filter(s -> !s.isBlank());
         var localPath = Optional.ofNullable(pathField.getText()).map(String::trim).filter(s -> !s.isBlank());
+        var engine = fastScanBox.isSelected() ? TestAnalyzer.ExtractionEngine.SCANNER : TestAnalyzer.ExtractionEngine.AST;
 
         // persist values
         if (url.isEmpty()) {
@@ -164,20 +181,31 @@ public class RunPanel extends JPanel {
         SwingWorker<ProjectAnalysis, ProgressInfo> worker = new SwingWorker<>() {
             @Override
             protected ProjectAnalysis doInBackground() throws Exception {
-                Path root;
                 if (url.isPresent()) {
-                    publish(new ProgressInfo("Cloning repository…", 0, 0));
-                    root = new GitService().cloneToTemp(url.get());
-                    pathField.setText(root.toString());
-                    log.info("localPath: {}", localPath);
-                } else if (localPath.isPresent()) {
-                    root = Path.of(localPath.get());
-                } else {
+                    // analyzed from the object database of a cached clone: no working tree is checked out
+                    publish(new ProgressInfo("Updating clone of repository…", 0, 0));
+                    try (CloneCache.Lease clone = CloneCache.defaultCache().acquire(url.get());
+                         GitTreeSource source = GitTreeSource.open(clone.gitDir(), Constants.HEAD)) {
+                        publish(new ProgressInfo("Analyzing repository: " + url.get(), 0, 0));
+                        return configure(new TestAnalyzer()).analyze(source, this::publish);
+                    }
+                }
+                if (localPath.isEmpty()) {
                     throw new IllegalArgumentException("Provide either Git URL or Local Path.");
                 }
 
+                Path root = Path.of(localPath.get());
                 publish(new ProgressInfo("Analyzing project: " + root, 0, 0));
-                return new TestAnalyzer().analyze(root, this::publish);
+                return configure(analyzerFor(root)).analyze(root, this::publish);
+            }
+
+            private TestAnalyzer configure(TestAnalyzer analyzer) {
+                analyzer.setParallelism(Runtime.getRuntime().availableProcessors());
+                analyzer.setEngine(engine);
+                analyzer.setModules(true);
+                analyzer.setCacheDir(ParseCache.defaultDirectory());
+                analyzer.setMetricsFile(AnalysisMetrics.exportFile());
+                return analyzer;
             }
 
             @Override
@@ -215,7 +243,18 @@ public class RunPanel extends JPanel {
         worker.execute();
     }
 
-    ;
+    /**
+     * Returns the analyzer of the previous run if it analyzed the same root, so that only
+     * changed files are re-analyzed; otherwise a fresh incremental analyzer.
+     */
+    private synchronized TestAnalyzer analyzerFor(Path root) {
+        if (analyzer == null || !root.equals(analyzerRoot)) {
+            analyzer = new TestAnalyzer();
+            analyzer.setIncremental(true);
+            analyzerRoot = root;
+        }
+        return analyzer;
+    }
 
     private void setRunningUi(String statusText) {
         analyzeBtn.setEnabled(false);
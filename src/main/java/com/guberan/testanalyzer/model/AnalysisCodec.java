@@ -0,0 +1,213 @@
+package com.guberan.testanalyzer.model;
+
+import com.guberan.testanalyzer.util.CompactDataInput;
+import com.guberan.testanalyzer.util.CompactDataOutput;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary encoding of finished {@link ProjectAnalysis analyses} (reports and module
+ * analyses) and of the state of {@link AnalysisModel models}, streamed through NIO channels in
+ * the {@link CompactDataOutput} format.
+ * <p>
+ * A stream starts with {@code MAGIC}, the format version and the kind of content. Sample lines
+ * are encoded one by one, so a test method listed as a sample by several reports (or tokens)
+ * is usually stored once (see the bounded string dictionary of {@link CompactDataOutput}).
+ * Readers reject other versions rather than guessing.
+ */
+public final class AnalysisCodec {
+
+    private static final int MAGIC = 0x54434141; // "TCAA"
+    private static final int VERSION = 2; // 2: bounded string dictionary
+    private static final int KIND_ANALYSIS = 1;
+    private static final int KIND_MODEL = 2;
+
+    private AnalysisCodec() {
+    }
+
+    /**
+     * Saves {@code analysis} to {@code file}, atomically replacing it.
+     */
+    public static void save(ProjectAnalysis analysis, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(analysis, channel);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static ProjectAnalysis load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    public static void write(ProjectAnalysis analysis, WritableByteChannel channel) throws IOException {
+        CompactDataOutput out = header(channel, KIND_ANALYSIS);
+        writeAnalysis(analysis, out);
+        out.flush();
+    }
+
+    public static ProjectAnalysis read(ReadableByteChannel channel) throws IOException {
+        return readAnalysis(header(channel, KIND_ANALYSIS));
+    }
+
+    /**
+     * Writes the state of {@code model}, to be {@linkplain #readModel read} back by a model of the same class.
+     */
+    public static void writeModel(AnalysisModel<?> model, WritableByteChannel channel) throws IOException {
+        CompactDataOutput out = header(channel, KIND_MODEL);
+        out.writeUTF(model.getClass().getName());
+        model.write(out);
+        out.flush();
+    }
+
+    /**
+     * @return a new model with the settings of {@code like} and the state read from {@code channel}
+     */
+    public static <M extends AnalysisModel<M>> M readModel(M like, ReadableByteChannel channel) throws IOException {
+        CompactDataInput in = header(channel, KIND_MODEL);
+        String type = in.readUTF();
+        if (!type.equals(like.getClass().getName())) {
+            throw new StreamCorruptedException("state of a " + type + ", not of a " + like.getClass().getName());
+        }
+        return like.read(in);
+    }
+
+    /* ---- */
+
+    private static CompactDataOutput header(WritableByteChannel channel, int kind) throws IOException {
+        CompactDataOutput out = new CompactDataOutput(channel);
+        out.write(ByteBuffer.allocate(4).putInt(MAGIC).array());
+        out.writeVarInt(VERSION);
+        out.writeVarInt(kind);
+        return out;
+    }
+
+    private static CompactDataInput header(ReadableByteChannel channel, int kind) throws IOException {
+        CompactDataInput in = new CompactDataInput(channel);
+        byte[] magic = new byte[4];
+        in.readFully(magic);
+        if (ByteBuffer.wrap(magic).getInt() != MAGIC) throw new StreamCorruptedException("not a test analyzer file");
+        int version = in.readVarInt();
+        if (version != VERSION) throw new StreamCorruptedException("unsupported version " + version);
+        int actual = in.readVarInt();
+        if (actual != kind) throw new StreamCorruptedException("unexpected content kind " + actual);
+        return in;
+    }
+
+    private static void writeAnalysis(ProjectAnalysis analysis, CompactDataOutput out) throws IOException {
+        writeNullable(out, analysis.getProjectRoot());
+        ConventionSummary convention = analysis.getConventionSummary();
+        out.writeBoolean(convention != null);
+        if (convention != null) {
+            writeNullable(out, convention.getHeadline());
+            writeNullable(out, convention.getRationale());
+        }
+
+        List<ProjectAnalysis.MetricsReport> reports = analysis.getReports().values().stream().sorted().toList();
+        out.writeVarInt(reports.size());
+        for (ProjectAnalysis.MetricsReport report : reports) {
+            out.writeUTF(report.getId().name());
+            writeNullable(out, report.getName());
+            writeNullable(out, report.getSummary());
+            writeNullable(out, report.getHelpText());
+            out.writeLong(report.getTotalCount());
+            out.writeVarInt(report.getItems().size());
+            for (ProjectAnalysis.MetricRecord item : report.getItems()) {
+                out.writeUTF(item.getName());
+                out.writeLong(item.getCount());
+                out.writeFloat(item.getPercent());
+                writeLines(out, item.getSamples());
+            }
+        }
+
+        out.writeVarInt(analysis.getModules().size());
+        for (Map.Entry<String, ProjectAnalysis> module : analysis.getModules().entrySet()) {
+            out.writeUTF(module.getKey());
+            writeAnalysis(module.getValue(), out);
+        }
+    }
+
+    private static ProjectAnalysis readAnalysis(CompactDataInput in) throws IOException {
+        ProjectAnalysis analysis = new ProjectAnalysis();
+        analysis.setProjectRoot(readNullable(in));
+        if (in.readBoolean()) {
+            analysis.setConventionSummary(new ConventionSummary(readNullable(in), readNullable(in)));
+        }
+
+        int reports = in.readVarInt();
+        for (int r = 0; r < reports; r++) {
+            ProjectAnalysis.ReportId id;
+            try {
+                id = ProjectAnalysis.ReportId.valueOf(in.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new StreamCorruptedException(e.getMessage());
+            }
+            String name = readNullable(in);
+            String summary = readNullable(in);
+            String helpText = readNullable(in);
+            long totalCount = in.readLong();
+            int size = in.readVarInt();
+            List<ProjectAnalysis.MetricRecord> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(new ProjectAnalysis.MetricRecord(in.readUTF(), in.readLong(), in.readFloat(), readLines(in)));
+            }
+            analysis.addReport(new ProjectAnalysis.MetricsReport(id, name, summary, helpText, totalCount, items));
+        }
+
+        int modules = in.readVarInt();
+        for (int m = 0; m < modules; m++) {
+            String module = in.readUTF();
+            analysis.getModules().put(module, readAnalysis(in));
+        }
+        return analysis;
+    }
+
+    private static void writeNullable(CompactDataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(CompactDataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes a (possibly multi-line) sample text line by line: {@code -1} for {@code null},
+     * else the number of lines and each line.
+     */
+    private static void writeLines(CompactDataOutput out, String text) throws IOException {
+        if (text == null) {
+            out.writeInt(-1);
+            return;
+        }
+        String[] lines = text.split("\n", -1);
+        out.writeInt(lines.length);
+        for (String line : lines) out.writeUTF(line);
+    }
+
+    private static String readLines(CompactDataInput in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) return null;
+        String[] lines = new String[n];
+        for (int i = 0; i < n; i++) lines[i] = in.readUTF();
+        return String.join("\n", lines);
+    }
+}
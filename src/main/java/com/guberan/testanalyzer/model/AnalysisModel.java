@@ -0,0 +1,61 @@
+package com.guberan.testanalyzer.model;
+
+import com.guberan.testanalyzer.util.MethodNameTokens;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * An aggregate of test methods that can be split and recombined: partial models fed with
+ * consecutive slices of the input (per thread, per module, per commit) and then
+ * {@linkplain #merge merged} in input order give the same report as one model fed with everything.
+ * <p>
+ * {@link #merge} must be associative ({@code a.merge(b); a.merge(c)} reports the same as
+ * {@code b.merge(c); a.merge(b)}) and deterministic. Samples are therefore always "the first
+ * N in input order": merging keeps ours and appends the other's while there is room.
+ * Models are not thread-safe; a model is fed by one thread at a time. A model can also be
+ * {@linkplain #write written} by one process and {@linkplain #read read} back by another, to be merged there.
+ *
+ * @param <M> the model type itself
+ */
+public interface AnalysisModel<M extends AnalysisModel<M>> {
+
+    /**
+     * Ingests one test method.
+     *
+     * @param tokens        its name, already {@linkplain MethodNameTokens#split split}
+     * @param sourceMethods method names of the production class under test (may be empty)
+     */
+    void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods);
+
+    /**
+     * Removes the contribution of a method previously passed to {@link #acceptMethod} with
+     * the same arguments. Samples cut by the cap in the meantime are not restored.
+     */
+    void retractMethod(TestMethodInfo method, String testClass, Set<String> sourceMethods);
+
+    /**
+     * Folds {@code other}, fed with methods that come after ours, into this model.
+     * {@code other} is left unchanged and can still be fed, merged elsewhere or reported on.
+     */
+    void merge(M other);
+
+    /**
+     * @return a new model with the same settings and no methods: the identity of {@link #merge}
+     */
+    M empty();
+
+    /**
+     * Writes the state of this model (not its settings), for {@link #read}.
+     */
+    void write(DataOutput out) throws IOException;
+
+    /**
+     * @return a new model with the same settings as this one and the state {@linkplain #write written} to {@code in}
+     */
+    M read(DataInput in) throws IOException;
+
+    void createReport(ProjectAnalysis projectAnalysis);
+}
@@ -1,19 +1,24 @@
 package com.guberan.testanalyzer.model;
 
-import com.github.javaparser.ast.body.MethodDeclaration;
+import com.guberan.testanalyzer.util.MethodNameTokens;
 import com.guberan.testanalyzer.util.NamingUtil;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 @Slf4j
-public class NamingModel {
+public class NamingModel implements AnalysisModel<NamingModel> {
 
     private static final int MAX_EXAMPLES = 50;
 
+    @Getter
     private long totalTestMethods = 0;
 
     private long displayAnnotUsed = 0;
@@ -25,28 +30,31 @@ public class NamingModel {
     private long sameAsSourceMethod = 0;
     private long sourceContainsArrangeActAssert = 0; // arrange act assert
 
-    private Set<String> displayAnnotUsedExamples = new HashSet<>();
-    private Set<String> startsWithTestExamples = new HashSet<>();
-    private Set<String> hasWhenThenExamples = new HashSet<>();
-    private Set<String> phraseLikeExamples = new HashSet<>();
-    private Set<String> sameAsSourceMethodExamples = new HashSet<>();
-    private Set<String> containsUnderscoreExamples = new HashSet<>();
-    private Set<String> noCamelCaseExamples = new HashSet<>();
+    private Set<String> displayAnnotUsedExamples = new LinkedHashSet<>();
+    private Set<String> startsWithTestExamples = new LinkedHashSet<>();
+    private Set<String> hasWhenThenExamples = new LinkedHashSet<>();
+    private Set<String> phraseLikeExamples = new LinkedHashSet<>();
+    private Set<String> sameAsSourceMethodExamples = new LinkedHashSet<>();
+    private Set<String> containsUnderscoreExamples = new LinkedHashSet<>();
+    private Set<String> noCamelCaseExamples = new LinkedHashSet<>();
 
+    // reused for the word split of each name (models are thread-confined)
+    private final MethodNameTokens words = new MethodNameTokens();
 
-    private boolean hasDisplayAnnotation(MethodDeclaration m) {
-        return m.getAnnotations().stream().anyMatch(a -> "DisplayName".equals(a.getNameAsString()));
+    @Override
+    public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods) {
+        acceptMethod(method, testClass, sourceMethods); // split into words, not tokens
     }
 
     /**
      * Ingest one test method
      */
-    public void acceptMethod(MethodDeclaration m, String testClass, Set<String> sourceMethods) {
-        String name = m.getNameAsString();
+    public void acceptMethod(TestMethodInfo m, String testClass, Set<String> sourceMethods) {
+        String name = m.name();
 
         totalTestMethods++;
 
-        if (hasDisplayAnnotation(m)) {
+        if (m.hasDisplayName()) {
             displayAnnotUsed++;
             if (displayAnnotUsedExamples.size() <= MAX_EXAMPLES) {
                 displayAnnotUsedExamples.add(testClass + "." + name);
@@ -64,7 +72,7 @@ public class NamingModel {
                 hasWhenThenExamples.add(testClass + "." + name);
             }
         }
-        if (NamingUtil.isBDDLike(name)) {
+        if (NamingUtil.isBDDLike(words.splitWords(name))) {
             phraseLike++;
             if (phraseLikeExamples.size() <= MAX_EXAMPLES) {
                 phraseLikeExamples.add(testClass + "." + name);
@@ -94,7 +102,121 @@ public class NamingModel {
 
     }
 
-    public void createNamingReport(ProjectAnalysis projectAnalysis) {
+    /**
+     * Removes the contribution of a method previously passed to {@link #acceptMethod}
+     * (with the same {@code sourceMethods}). Its examples are dropped; examples previously
+     * cut by the cap are not restored.
+     */
+    @Override
+    public void retractMethod(TestMethodInfo m, String testClass, Set<String> sourceMethods) {
+        String name = m.name();
+        String example = testClass + "." + name;
+
+        totalTestMethods--;
+
+        if (m.hasDisplayName()) {
+            displayAnnotUsed--;
+            displayAnnotUsedExamples.remove(example);
+        }
+        if (name.startsWith("test")) {
+            startsWithTest--;
+            startsWithTestExamples.remove(example);
+        }
+        if (NamingUtil.followsWhenThen(name)) {
+            hasWhenThen--;
+            hasWhenThenExamples.remove(example);
+        }
+        if (NamingUtil.isBDDLike(words.splitWords(name))) {
+            phraseLike--;
+            phraseLikeExamples.remove(example);
+        }
+        if (!sourceMethods.isEmpty() && sourceMethods.contains(name)) {
+            sameAsSourceMethod--;
+            sameAsSourceMethodExamples.remove(example);
+        }
+        if (name.contains("_")) {
+            containsUnderscore--;
+            containsUnderscoreExamples.remove(example);
+        }
+        if (NamingUtil.noUpperCase(name)) {
+            noCamelCase--;
+            noCamelCaseExamples.remove(example);
+        }
+    }
+
+    /**
+     * Folds another model into this one. Examples of {@code other} are added after ours with
+     * the same cap as {@link #acceptMethod}, so merging partial models in input order yields
+     * the same report as a sequential run.
+     */
+    @Override
+    public void merge(NamingModel other) {
+        totalTestMethods += other.totalTestMethods;
+        displayAnnotUsed += other.displayAnnotUsed;
+        startsWithTest += other.startsWithTest;
+        hasWhenThen += other.hasWhenThen;
+        phraseLike += other.phraseLike;
+        containsUnderscore += other.containsUnderscore;
+        noCamelCase += other.noCamelCase;
+        sameAsSourceMethod += other.sameAsSourceMethod;
+        sourceContainsArrangeActAssert += other.sourceContainsArrangeActAssert;
+
+        mergeExamples(displayAnnotUsedExamples, other.displayAnnotUsedExamples);
+        mergeExamples(startsWithTestExamples, other.startsWithTestExamples);
+        mergeExamples(hasWhenThenExamples, other.hasWhenThenExamples);
+        mergeExamples(phraseLikeExamples, other.phraseLikeExamples);
+        mergeExamples(sameAsSourceMethodExamples, other.sameAsSourceMethodExamples);
+        mergeExamples(containsUnderscoreExamples, other.containsUnderscoreExamples);
+        mergeExamples(noCamelCaseExamples, other.noCamelCaseExamples);
+    }
+
+    @Override
+    public NamingModel empty() {
+        return new NamingModel();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        for (long count : new long[]{totalTestMethods, displayAnnotUsed, startsWithTest, hasWhenThen, phraseLike,
+                containsUnderscore, noCamelCase, sameAsSourceMethod, sourceContainsArrangeActAssert}) {
+            out.writeLong(count);
+        }
+        for (Set<String> examples : List.of(displayAnnotUsedExamples, startsWithTestExamples, hasWhenThenExamples,
+                phraseLikeExamples, sameAsSourceMethodExamples, containsUnderscoreExamples, noCamelCaseExamples)) {
+            out.writeInt(examples.size());
+            for (String example : examples) out.writeUTF(example);
+        }
+    }
+
+    @Override
+    public NamingModel read(DataInput in) throws IOException {
+        NamingModel model = new NamingModel();
+        model.totalTestMethods = in.readLong();
+        model.displayAnnotUsed = in.readLong();
+        model.startsWithTest = in.readLong();
+        model.hasWhenThen = in.readLong();
+        model.phraseLike = in.readLong();
+        model.containsUnderscore = in.readLong();
+        model.noCamelCase = in.readLong();
+        model.sameAsSourceMethod = in.readLong();
+        model.sourceContainsArrangeActAssert = in.readLong();
+        for (Set<String> examples : List.of(model.displayAnnotUsedExamples, model.startsWithTestExamples, model.hasWhenThenExamples,
+                model.phraseLikeExamples, model.sameAsSourceMethodExamples, model.containsUnderscoreExamples, model.noCamelCaseExamples)) {
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) examples.add(in.readUTF());
+        }
+        return model;
+    }
+
+    private static void mergeExamples(Set<String> into, Set<String> from) {
+        for (String example : from) {
+            if (into.size() > MAX_EXAMPLES) break;
+            into.add(example);
+        }
+    }
+
+    @Override
+    public void createReport(ProjectAnalysis projectAnalysis) {
 
         List<ProjectAnalysis.MetricRecord> metrics = new ArrayList<>();
         metrics.add(new ProjectAnalysis.MetricRecord("All tests", this.totalTestMethods, 1.0f, ""));
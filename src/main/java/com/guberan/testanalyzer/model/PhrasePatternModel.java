@@ -1,10 +1,15 @@
 package com.guberan.testanalyzer.model;
 
-import com.github.javaparser.ast.body.MethodDeclaration;
+import com.guberan.testanalyzer.util.MethodNameTokens;
 import com.guberan.testanalyzer.util.StringUtil;
+import com.guberan.testanalyzer.util.TopK;
+import com.guberan.testanalyzer.util.Vocabulary;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 /**
  * Extracts "phrase-like" templates from test method names.
@@ -20,21 +25,22 @@ import java.util.regex.Pattern;
  * template (compressed):
  * When <any> Then Throws <any> Exception
  */
-public final class PhrasePatternModel {
+public final class PhrasePatternModel implements AnalysisModel<PhrasePatternModel> {
 
-    private static final Pattern TOKEN_SPLIT = Pattern.compile("(?<!^)(?=[A-Z])|[_\\-]");
     private static final int DEFAULT_TOP_K = 50;
     private static final int MAX_EXAMPLE = 50;
 
     /**
-     * Words we want to keep as "anchors" in the template.
+     * Words we want to keep as "anchors" in the template, with their normalized forms
+     * (throw/throws/thrown =&gt; throws, assert/expect =&gt; expect).
      * Keep this set small-ish; otherwise everything becomes a keyword and you lose abstraction.
      */
-    private static final Set<String> KEYWORDS = Set.of(
-            "given", "when", "then", "should", "if", "throws",
-            "expect", "exception", "error", "fail", "fails", "failed",
-            "return", "returns", "not", "no", "null", "empty", "missing", "invalid", "valid"
-    );
+    private static final Vocabulary KEYWORDS = Vocabulary.of(
+                    "given", "when", "then", "should", "if", "throws",
+                    "expect", "exception", "error", "fail", "fails", "failed",
+                    "return", "returns", "not", "no", "null", "empty", "missing", "invalid", "valid")
+            .withAliases("throws", "throw", "thrown")
+            .withAliases("expect", "assert", "asserts", "asserted", "expects", "expected");
 
     /**
      * Placeholder for a single unknown token.
@@ -48,6 +54,8 @@ public final class PhrasePatternModel {
 
     private final Map<String, ProjectAnalysis.MetricRecord> patternMap = new HashMap<>();
     private final boolean granular; // true => <w> <w> ; false => <any>
+    // reused by the single-argument entry points (models are thread-confined)
+    private final MethodNameTokens scratch = new MethodNameTokens();
     private long total = 0;
 
     public PhrasePatternModel(boolean granular) {
@@ -55,99 +63,129 @@ public final class PhrasePatternModel {
     }
 
     /**
-     * Tokenizes a method name into lowercase tokens (camelCase + '_' + '-' split)
-     * and applies a small canonicalization step so similar constructs map to the same pattern.
+     * Builds the template of a tokenized method name: keywords are kept (normalized and
+     * capitalized), other tokens become {@code <w>} (granular) or runs of them {@code <any>}.
      */
-    static List<String> tokenizeAndNormalize(String s) {
-        if (s == null || s.isBlank()) return List.of();
+    static String toPattern(MethodNameTokens tokens, boolean granular) {
+        StringBuilder sb = new StringBuilder(tokens.size() * 6);
 
-        String[] raw = TOKEN_SPLIT.split(s);
-        List<String> out = new ArrayList<>(raw.length);
+        boolean previousWasPlaceholder = false;
 
-        for (String r : raw) {
-            if (r == null || r.isBlank()) continue;
-            String t = r.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < tokens.size(); i++) {
+            int keyword = tokens.lookup(i, KEYWORDS);
+            String part;
 
-            // Normalize throw/throws/thrown -> throws
-            if (t.equals("throw") || t.equals("throws") || t.equals("thrown")) {
-                t = "throws";
-            }
-            // Normalize assert* and expect* -> expect
-            else if (t.equals("assert") || t.equals("asserts") || t.equals("asserted")
-                    || t.equals("expect") || t.equals("expects") || t.equals("expected")) {
-                t = "expect";
+            if (keyword >= 0) {
+                // Keep anchors
+                part = KEYWORDS.capitalized(keyword);
+                previousWasPlaceholder = false;
+            } else if (granular) {
+                // Replace unknown words
+                part = WORD;
+                previousWasPlaceholder = true;
+            } else if (!previousWasPlaceholder) {
+                // compressed: merge consecutive unknowns into a single <any>
+                part = ANY;
+                previousWasPlaceholder = true;
+            } else {
+                continue;
             }
 
-            out.add(t);
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append(part);
         }
 
-        return out;
+        return sb.toString();
     }
 
+    // ----------------- acceptMethod -----------------
+
     /**
-     * Tokenizer without canonicalization (kept for experiments).
+     * Accept one method (already filtered to executable test methods, ideally).
      */
-    static List<String> tokenize(String s) {
-        if (s == null || s.isBlank()) return List.of();
-        String[] raw = TOKEN_SPLIT.split(s);
-        List<String> out = new ArrayList<>(raw.length);
-        for (String r : raw) {
-            if (r == null || r.isBlank()) continue;
-            out.add(r.toLowerCase(Locale.ROOT));
-        }
-        return out;
+    public void acceptMethod(TestMethodInfo method, String testClass) {
+        acceptMethod(method, testClass, scratch.split(method.name()));
     }
 
-    static String toPattern(List<String> tokens, boolean granular) {
-        StringBuilder sb = new StringBuilder(tokens.size() * 6);
-
-        boolean previousWasPlaceholder = false;
+    @Override
+    public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods) {
+        acceptMethod(method, testClass, tokens);
+    }
 
-        for (String t : tokens) {
-            boolean keyword = KEYWORDS.contains(t);
+    /**
+     * Accept one method whose name has already been {@linkplain MethodNameTokens#split split}.
+     */
+    public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens) {
+        if (tokens.isEmpty()) return;
 
-            if (keyword) {
-                // Keep anchors
-                sb.append(capitalize(t)).append(' ');
-                previousWasPlaceholder = false;
-            } else {
-                // Replace unknown words
-                if (granular) {
-                    sb.append(WORD).append(' ');
-                    previousWasPlaceholder = true;
-                } else {
-                    // compressed: merge consecutive unknowns into a single <any>
-                    if (!previousWasPlaceholder) {
-                        sb.append(ANY).append(' ');
-                        previousWasPlaceholder = true;
-                    }
-                }
-            }
-        }
+        total++;
 
-        // cleanup trailing space
-        return sb.toString().trim();
+        String pattern = toPattern(tokens, granular);
+        patternMap.merge(pattern, new ProjectAnalysis.MetricRecord(pattern, 1L, 0.0f, testClass + "." + method.name()), this::mergeMetrictems);
     }
 
-    static String capitalize(String s) {
-        if (s.isEmpty()) return s;
-        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    @Override
+    public void retractMethod(TestMethodInfo method, String testClass, Set<String> sourceMethods) {
+        retractMethod(method, testClass);
     }
 
-    // ----------------- acceptMethod -----------------
-
     /**
-     * Accept one method (already filtered to executable test methods, ideally).
+     * Removes the contribution of a method previously passed to {@link #acceptMethod}.
+     * Its sample line is dropped; samples previously cut by the cap are not restored.
      */
-    public void acceptMethod(MethodDeclaration method, String testClass) {
-        String methodName = method.getNameAsString();
-        List<String> tokens = tokenizeAndNormalize(methodName);
+    public void retractMethod(TestMethodInfo method, String testClass) {
+        MethodNameTokens tokens = scratch.split(method.name());
         if (tokens.isEmpty()) return;
 
-        total++;
+        total--;
 
         String pattern = toPattern(tokens, granular);
-        patternMap.merge(pattern, new ProjectAnalysis.MetricRecord(pattern, 1L, 0.0f, testClass + "." + methodName), this::mergeMetrictems);
+        String sample = testClass + "." + method.name();
+        patternMap.computeIfPresent(pattern, (p, item) -> item.getCount() <= 1 ? null
+                : new ProjectAnalysis.MetricRecord(p, item.getCount() - 1, item.getPercent(), StringUtil.removeLine(item.getSamples(), sample)));
+    }
+
+    /**
+     * Folds another model into this one. Samples of {@code other} are appended after ours,
+     * so merging partial models in input order yields the same report as a sequential run.
+     */
+    @Override
+    public void merge(PhrasePatternModel other) {
+        if (granular != other.granular) {
+            throw new IllegalArgumentException("Cannot merge granular and compressed pattern models");
+        }
+        total += other.total;
+        // records are replaced, never updated in place: sharing them with other is safe
+        other.patternMap.forEach((pattern, item) -> patternMap.merge(pattern, item, this::mergeMetrictems));
+    }
+
+    @Override
+    public PhrasePatternModel empty() {
+        return new PhrasePatternModel(granular);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(total);
+        out.writeInt(patternMap.size());
+        for (ProjectAnalysis.MetricRecord item : patternMap.values()) {
+            out.writeUTF(item.getName());
+            out.writeLong(item.getCount());
+            out.writeFloat(item.getPercent());
+            out.writeUTF(item.getSamples());
+        }
+    }
+
+    @Override
+    public PhrasePatternModel read(DataInput in) throws IOException {
+        PhrasePatternModel model = new PhrasePatternModel(granular);
+        model.total = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            String pattern = in.readUTF();
+            model.patternMap.put(pattern, new ProjectAnalysis.MetricRecord(pattern, in.readLong(), in.readFloat(), in.readUTF()));
+        }
+        return model;
     }
 
     private ProjectAnalysis.MetricRecord mergeMetrictems(ProjectAnalysis.MetricRecord item1, ProjectAnalysis.MetricRecord item2) {
@@ -160,11 +198,21 @@ public final class PhrasePatternModel {
     }
 
 
-    public void createPatternReport(ProjectAnalysis projectAnalysis) {
+    /**
+     * Passes every pattern, not only the top {@value DEFAULT_TOP_K} of the report, in no particular
+     * order and without ratios. The records are the model's own: they must not be modified or kept.
+     */
+    public void forEachRecord(Consumer<ProjectAnalysis.MetricRecord> action) {
+        patternMap.values().forEach(action);
+    }
+
+    @Override
+    public void createReport(ProjectAnalysis projectAnalysis) {
 
         List<ProjectAnalysis.MetricRecord> top50Patterns = patternMap.values().stream()
-                .sorted()
-                .limit(DEFAULT_TOP_K)
+                .collect(TopK.collector(DEFAULT_TOP_K, Comparator.naturalOrder()))
+                .stream()
+                .map(ProjectAnalysis.MetricRecord::copy) // ratios are set on the report only
                 .toList();
 
         projectAnalysis.addReport(
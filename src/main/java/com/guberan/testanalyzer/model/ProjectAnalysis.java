@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +14,12 @@ public class ProjectAnalysis {
 
     private final Map<ReportId, MetricsReport> reports = new HashMap<>();
 
+    /**
+     * Analyses of the Maven/Gradle modules, by path relative to the project root ({@code "."}
+     * for the root itself); empty unless the analysis was sharded by module.
+     */
+    private final Map<String, ProjectAnalysis> modules = new LinkedHashMap<>();
+
     private String projectRoot;
     private ConventionSummary conventionSummary;
 
@@ -39,7 +46,7 @@ public class ProjectAnalysis {
         return sb.toString();
     }
 
-    public enum ReportId {SUMMARY, FILE_TYPES, SRC_VS_TEST, TEST_METHOD_NAMING, TOKENS, PATTERNS}
+    public enum ReportId {SUMMARY, FILE_TYPES, SRC_VS_TEST, TEST_METHOD_NAMING, TOKENS, PATTERNS, MODULES, METRICS}
 
     @Data
     @AllArgsConstructor
@@ -122,6 +129,13 @@ public class ProjectAnalysis {
             return new MetricRecord(entry.getKey(), entry.getValue(), 0.0f, "");
         }
 
+        /**
+         * @return a copy, for reports built from records a model keeps updating
+         */
+        public MetricRecord copy() {
+            return new MetricRecord(name, count, percent, samples);
+        }
+
         public long inc() {
             return ++count;
         }
@@ -0,0 +1,221 @@
+package com.guberan.testanalyzer.model;
+
+import com.guberan.testanalyzer.util.StringUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Exports the reports of a {@link ProjectAnalysis} as CSV or JSON, streaming each record straight
+ * to a {@link Writer}: the document is never built in memory, so exporting a table of millions of
+ * rows takes constant heap. Reports with a {@linkplain #withFullTable full table} (the token and
+ * pattern models) are exported in full instead of the top items kept by the report.
+ * <p>
+ * Formats:
+ * <ul>
+ *   <li>CSV: {@code report,item,count,percent}, one row per item (percent of the report total, one decimal)</li>
+ *   <li>modules CSV: the same, prefixed with the {@code module} of each row</li>
+ *   <li>JSON: {@code {"projectRoot", "reports": [{"id", "name", "summary", "totalCount", "items":
+ *   [{"name", "count", "percent", "samples"}]}], "modules": {name: analysis}}}, percent as a ratio;
+ *   {@code modules} only when there are some</li>
+ * </ul>
+ */
+public final class ReportExporter {
+
+    /**
+     * Every record of a report, for {@link #withFullTable}.
+     */
+    @FunctionalInterface
+    public interface RecordSource {
+
+        /**
+         * Passes each record to {@code action}, in any order; ratios are computed by the exporter.
+         */
+        void forEachRecord(Consumer<ProjectAnalysis.MetricRecord> action);
+    }
+
+    private final ProjectAnalysis analysis;
+    private final Map<ProjectAnalysis.ReportId, RecordSource> fullTables = new EnumMap<>(ProjectAnalysis.ReportId.class);
+    private final Map<String, ReportExporter> modules = new LinkedHashMap<>();
+
+    public ReportExporter(ProjectAnalysis analysis) {
+        this.analysis = analysis;
+        analysis.getModules().forEach((module, moduleAnalysis) -> modules.put(module, new ReportExporter(moduleAnalysis)));
+    }
+
+    /**
+     * Exports the items of report {@code id} from {@code source} rather than from the report,
+     * which may only hold the top ones. The report still provides the name and total.
+     */
+    public ReportExporter withFullTable(ProjectAnalysis.ReportId id, RecordSource source) {
+        fullTables.put(id, source);
+        return this;
+    }
+
+    /**
+     * @return the exporter of a module of the analysis, or {@code null} if there is no such module
+     */
+    public ReportExporter module(String module) {
+        return modules.get(module);
+    }
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write("report,item,count,percent\n");
+        writeCsvRows(out, null);
+    }
+
+    public void writeModulesCsv(Writer out) throws IOException {
+        out.write("module,report,item,count,percent\n");
+        for (Map.Entry<String, ReportExporter> module : modules.entrySet()) {
+            module.getValue().writeCsvRows(out, module.getKey());
+        }
+    }
+
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\"projectRoot\":");
+        StringUtil.appendJsonString(out, analysis.getProjectRoot());
+        out.write(",\"reports\":[");
+        String reportSep = "";
+        for (ProjectAnalysis.MetricsReport report : analysis.getReports().values().stream().sorted().toList()) {
+            out.write(reportSep);
+            out.write("{\"id\":\"");
+            out.write(report.getId().name());
+            out.write("\",\"name\":");
+            StringUtil.appendJsonString(out, report.getName());
+            out.write(",\"summary\":");
+            StringUtil.appendJsonString(out, report.getSummary());
+            out.write(",\"totalCount\":");
+            out.write(Long.toString(report.getTotalCount()));
+            out.write(",\"items\":[");
+            boolean[] first = {true};
+            forEachItem(report, (item, ratio) -> {
+                if (!first[0]) out.write(',');
+                first[0] = false;
+                out.write("{\"name\":");
+                StringUtil.appendJsonString(out, item.getName());
+                out.write(",\"count\":");
+                out.write(Long.toString(item.getCount()));
+                out.write(",\"percent\":");
+                out.write(Float.toString(Float.isFinite(ratio) ? ratio : 0.0f));
+                out.write(",\"samples\":");
+                StringUtil.appendJsonString(out, item.getSamples());
+                out.write('}');
+            });
+            out.write("]}");
+            reportSep = ",";
+        }
+        out.write(']');
+        if (!modules.isEmpty()) {
+            out.write(",\"modules\":{");
+            String moduleSep = "";
+            for (Map.Entry<String, ReportExporter> module : modules.entrySet()) {
+                out.write(moduleSep);
+                StringUtil.appendJsonString(out, module.getKey());
+                out.write(':');
+                module.getValue().writeJson(out);
+                moduleSep = ",";
+            }
+            out.write('}');
+        }
+        out.write('}');
+    }
+
+    /**
+     * Writes the {@linkplain #writeCsv(Writer) CSV export} to {@code out} in UTF-8, and flushes it (without closing it).
+     */
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = utf8(out);
+        writeCsv(writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the {@linkplain #writeJson(Writer) JSON export} to {@code out} in UTF-8, and flushes it (without closing it).
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        Writer writer = utf8(out);
+        writeJson(writer);
+        writer.flush();
+    }
+
+    /* ---- */
+
+    private static Writer utf8(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private void writeCsvRows(Writer out, String module) throws IOException {
+        for (ProjectAnalysis.MetricsReport report : analysis.getReports().values().stream().sorted().toList()) {
+            String id = report.getId().name();
+            forEachItem(report, (item, ratio) -> {
+                if (module != null) {
+                    StringUtil.appendCsvField(out, module);
+                    out.write(',');
+                }
+                out.write(id);
+                out.write(',');
+                StringUtil.appendCsvField(out, item.getName());
+                out.write(',');
+                out.write(Long.toString(item.getCount()));
+                out.write(',');
+                appendPercent(out, ratio);
+                out.write('\n');
+            });
+        }
+    }
+
+    private interface ItemWriter {
+        void write(ProjectAnalysis.MetricRecord item, float ratio) throws IOException;
+    }
+
+    /**
+     * Passes each item of {@code report} with its ratio: from the full table if there is one,
+     * else the report's own items and ratios.
+     */
+    private void forEachItem(ProjectAnalysis.MetricsReport report, ItemWriter writer) throws IOException {
+        RecordSource source = fullTables.get(report.getId());
+        if (source == null) {
+            for (ProjectAnalysis.MetricRecord item : report.getItems()) writer.write(item, item.getPercent());
+            return;
+        }
+        // same ratio as MetricsReport.computeRatios
+        float total = report.getTotalCount();
+        try {
+            source.forEachRecord(item -> {
+                try {
+                    writer.write(item, total == 0 ? 0.0f : item.getCount() / total);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Appends {@code ratio} as a percentage with one decimal, as {@code %.1f} would, but without
+     * formatting a string per row; nothing for {@code NaN}.
+     */
+    private static void appendPercent(Writer out, float ratio) throws IOException {
+        if (Float.isNaN(ratio)) return;
+        if (Float.isInfinite(ratio) || ratio < 0) {
+            out.write(String.format(Locale.ROOT, "%.1f", ratio * 100));
+            return;
+        }
+        long tenths = Math.round((double) (ratio * 100) * 10);
+        out.write(Long.toString(tenths / 10));
+        out.write('.');
+        out.write((char) ('0' + tenths % 10));
+    }
+}
@@ -0,0 +1,42 @@
+package com.guberan.testanalyzer.model;
+
+import com.guberan.testanalyzer.util.NamingUtil;
+
+import java.util.List;
+
+/**
+ * Compact facts extracted from one test source file: everything the models need,
+ * without the AST.
+ *
+ * @param packageName declared package, or {@code ""} for the default package
+ * @param typeNames   top-level type names, in declaration order
+ * @param testMethods methods carrying a {@code @Test}-like annotation (nested types included)
+ */
+public record TestFileInfo(String packageName, List<String> typeNames, List<TestMethodInfo> testMethods) {
+
+    /**
+     * "Primary" test class name: the first type that looks like a test class
+     * (see {@link NamingUtil#sourceClassNameFromTestClass}), else the first type, both in
+     * declaration order (before both engines shared this class, "first" meant first in a
+     * {@code HashSet}, so files declaring several types could get another primary class).
+     *
+     * @return the class name, or {@code null} if the file declares no type
+     */
+    public String primaryTestClass() {
+        return typeNames.stream()
+                .filter(n -> NamingUtil.sourceClassNameFromTestClass(n) != null)
+                .findFirst()
+                .orElse(typeNames.stream().findFirst().orElse(null));
+    }
+
+    /**
+     * Fully qualified name of the production class tested by {@link #primaryTestClass()}.
+     *
+     * @return the FQN, or {@code null} if the primary class does not follow a test naming convention
+     */
+    public String sourceClassFqn() {
+        String sourceClass = NamingUtil.sourceClassNameFromTestClass(primaryTestClass());
+        if (sourceClass == null) return null;
+        return packageName.isBlank() ? sourceClass : (packageName + "." + sourceClass);
+    }
+}
@@ -0,0 +1,37 @@
+package com.guberan.testanalyzer.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact facts about one method of a test file, as consumed by the models.
+ *
+ * @param name        method name
+ * @param annotations annotation names as written in the source (usually simple names), in declaration order
+ */
+public record TestMethodInfo(String name, List<String> annotations) {
+
+    // JUnit5 + common variants.
+    private static final Set<String> TEST_ANNOTATIONS = Set.of(
+            "Test",
+            "ParameterizedTest",
+            "RepeatedTest",
+            "TestFactory",
+            "TestTemplate"
+    );
+
+    public static boolean isTestAnnotation(String annotationName) {
+        return TEST_ANNOTATIONS.contains(annotationName);
+    }
+
+    /**
+     * @return true if the method carries a JUnit {@code @Test}-like annotation
+     */
+    public boolean isTest() {
+        return annotations.stream().anyMatch(TestMethodInfo::isTestAnnotation);
+    }
+
+    public boolean hasDisplayName() {
+        return annotations.contains("DisplayName");
+    }
+}
@@ -1,10 +1,14 @@
 package com.guberan.testanalyzer.model;
 
-import com.github.javaparser.ast.body.MethodDeclaration;
-import com.guberan.testanalyzer.util.StringUtil;
+import com.guberan.testanalyzer.util.MethodNameTokens;
+import com.guberan.testanalyzer.util.TokenDictionary;
+import com.guberan.testanalyzer.util.TopK;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 /**
  * Simple unigram token frequency model.
@@ -15,21 +19,24 @@ import java.util.regex.Pattern;
  *   <li>splits on '_' and '-'</li>
  *   <li>lower-cases tokens</li>
  * </ul>
+ *
+ * <p>Tokens are interned to ids, with primitive counts and a bounded list of sample methods per
+ * id: ingesting a method allocates nothing for tokens already seen. Report records are only
+ * created by {@link #createReport}.
  */
-public final class TokenModel {
+public final class TokenModel implements AnalysisModel<TokenModel> {
 
     private static final int MAX_TOKEN = 50;
     private static final int MAX_EXAMPLE = 50;
 
-    /**
-     * Split points:
-     * - before an upper-case letter (but not at the start)
-     * - on '_' or '-'
-     */
-    private static final Pattern TOKEN_SPLIT = Pattern.compile("(?<!^)(?=[A-Z])|[_\\-]");
+    // token -> id; counts and samples are indexed by id (a token retracted to 0 keeps its id)
+    private final TokenDictionary dictionary = new TokenDictionary();
+    private long[] counts = new long[64];
+    private String[][] samples = new String[64][];
+    private int[] sampleCounts = new int[64];
 
-    // private final Map<String, Long> tokenMap = new HashMap<>();
-    private final Map<String, ProjectAnalysis.MetricRecord> tokenMap = new HashMap<>();
+    // reused by the single-argument entry points (models are thread-confined)
+    private final MethodNameTokens scratch = new MethodNameTokens();
 
     private long totalMethods = 0;
     private long totalTokens = 0;
@@ -39,11 +46,10 @@ public final class TokenModel {
      */
     public static List<String> tokenize(String s) {
         if (s == null || s.isBlank()) return List.of();
-        String[] raw = TOKEN_SPLIT.split(s);
-        List<String> out = new ArrayList<>(raw.length);
-        for (String r : raw) {
-            if (r == null || r.isBlank()) continue;
-            out.add(r.toLowerCase(Locale.ROOT));
+        MethodNameTokens tokens = new MethodNameTokens().split(s);
+        List<String> out = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            out.add(tokens.token(i));
         }
         return out;
     }
@@ -51,33 +57,188 @@ public final class TokenModel {
     /**
      * Ingest one test method
      */
-    public void acceptMethod(MethodDeclaration method, String testClass) {
-        String methodName = method.getNameAsString();
-        List<String> tokens = tokenize(methodName);
+    public void acceptMethod(TestMethodInfo method, String testClass) {
+        acceptMethod(method, testClass, scratch.split(method.name()));
+    }
+
+    @Override
+    public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods) {
+        acceptMethod(method, testClass, tokens);
+    }
+
+    /**
+     * Ingest one test method whose name has already been {@linkplain MethodNameTokens#split split}.
+     */
+    public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens) {
         if (tokens.isEmpty()) return;
 
         totalMethods++;
         totalTokens += tokens.size();
 
-        for (String t : tokens) {
-            tokenMap.merge(t, new ProjectAnalysis.MetricRecord(t, 1L, 0.0f, testClass + "." + methodName), this::mergeMetrictems);
+        String sample = null; // built only if some token still collects samples
+        for (int i = 0; i < tokens.size(); i++) {
+            int id = tokens.intern(i, dictionary);
+            if (id == counts.length) grow();
+            counts[id]++;
+            if (sampleCounts[id] < MAX_EXAMPLE) {
+                if (sample == null) sample = testClass + "." + method.name();
+                addSample(id, sample);
+            }
         }
     }
 
-    private ProjectAnalysis.MetricRecord mergeMetrictems(ProjectAnalysis.MetricRecord item1, ProjectAnalysis.MetricRecord item2) {
+    @Override
+    public void retractMethod(TestMethodInfo method, String testClass, Set<String> sourceMethods) {
+        retractMethod(method, testClass);
+    }
 
-        return new ProjectAnalysis.MetricRecord(item1.getName(),
-                item1.getCount() + item2.getCount(),
-                item1.getPercent() + item2.getPercent(),
-                StringUtil.concatWithMaxLines(item1.getSamples(), item2.getSamples(), MAX_EXAMPLE)
-        );
+    /**
+     * Removes the contribution of a method previously passed to {@link #acceptMethod}.
+     * Its sample line is dropped; samples previously cut by the cap are not restored.
+     */
+    public void retractMethod(TestMethodInfo method, String testClass) {
+        MethodNameTokens tokens = scratch.split(method.name());
+        if (tokens.isEmpty()) return;
+
+        totalMethods--;
+        totalTokens -= tokens.size();
+
+        String sample = testClass + "." + method.name();
+        for (int i = 0; i < tokens.size(); i++) {
+            int id = tokens.lookup(i, dictionary);
+            if (id < 0 || counts[id] == 0) continue;
+            if (--counts[id] == 0) {
+                sampleCounts[id] = 0;
+                samples[id] = null;
+            } else {
+                removeSample(id, sample);
+            }
+        }
+    }
+
+    /**
+     * Folds another model into this one. Samples of {@code other} are appended after ours,
+     * so merging partial models in input order yields the same report as a sequential run.
+     */
+    @Override
+    public void merge(TokenModel other) {
+        totalMethods += other.totalMethods;
+        totalTokens += other.totalTokens;
+        for (int otherId = 0; otherId < other.dictionary.size(); otherId++) {
+            if (other.counts[otherId] == 0) continue;
+            int id = dictionary.intern(other.dictionary.token(otherId));
+            if (id == counts.length) grow();
+            counts[id] += other.counts[otherId];
+            for (int k = 0; k < other.sampleCounts[otherId] && sampleCounts[id] < MAX_EXAMPLE; k++) {
+                addSample(id, other.samples[otherId][k]);
+            }
+        }
+    }
+
+    @Override
+    public TokenModel empty() {
+        return new TokenModel();
     }
 
-    public void createTokenReport(ProjectAnalysis projectAnalysis) {
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(totalMethods);
+        out.writeLong(totalTokens);
+        out.writeInt(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            out.writeUTF(dictionary.token(id));
+            out.writeLong(counts[id]);
+            out.writeInt(sampleCounts[id]);
+            for (int k = 0; k < sampleCounts[id]; k++) out.writeUTF(samples[id][k]);
+        }
+    }
 
-        List<ProjectAnalysis.MetricRecord> topTokens = tokenMap.values().stream()
-                .sorted()
-                .limit(MAX_TOKEN)
+    @Override
+    public TokenModel read(DataInput in) throws IOException {
+        TokenModel model = new TokenModel();
+        model.totalMethods = in.readLong();
+        model.totalTokens = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            int id = model.dictionary.intern(in.readUTF()); // ids are kept: written in id order
+            if (id == model.counts.length) model.grow();
+            model.counts[id] = in.readLong();
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) model.addSample(id, in.readUTF());
+        }
+        return model;
+    }
+
+    /**
+     * @return the samples of {@code id}, one per line; a counted token may have none (and no
+     * array) once the methods its samples came from are retracted
+     */
+    private String joinedSamples(int id) {
+        if (sampleCounts[id] == 0) return "";
+        return String.join("\n", Arrays.asList(samples[id]).subList(0, sampleCounts[id]));
+    }
+
+    private void grow() {
+        int capacity = counts.length * 2;
+        counts = Arrays.copyOf(counts, capacity);
+        samples = Arrays.copyOf(samples, capacity);
+        sampleCounts = Arrays.copyOf(sampleCounts, capacity);
+    }
+
+    /**
+     * Appends to the samples of {@code id}, which hold fewer than {@link #MAX_EXAMPLE}; the
+     * array grows by doubling, as most tokens never collect more than a few samples.
+     */
+    private void addSample(int id, String sample) {
+        String[] list = samples[id];
+        int n = sampleCounts[id];
+        if (list == null) {
+            list = samples[id] = new String[2];
+        } else if (n == list.length) {
+            list = samples[id] = Arrays.copyOf(list, Math.min(n * 2, MAX_EXAMPLE));
+        }
+        list[n] = sample;
+        sampleCounts[id] = n + 1;
+    }
+
+    private void removeSample(int id, String sample) {
+        String[] list = samples[id];
+        int n = sampleCounts[id];
+        for (int k = 0; k < n; k++) {
+            if (list[k].equals(sample)) {
+                System.arraycopy(list, k + 1, list, k, n - k - 1);
+                list[n - 1] = null;
+                sampleCounts[id] = n - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Passes a record for every token, not only the top {@value MAX_TOKEN} of the report, in
+     * first-seen order and without ratios; records are created one at a time.
+     */
+    public void forEachRecord(Consumer<ProjectAnalysis.MetricRecord> action) {
+        for (int id = 0; id < dictionary.size(); id++) {
+            if (counts[id] > 0) {
+                action.accept(new ProjectAnalysis.MetricRecord(dictionary.token(id), counts[id], 0.0f,
+                        joinedSamples(id)));
+            }
+        }
+    }
+
+    @Override
+    public void createReport(ProjectAnalysis projectAnalysis) {
+
+        // same order as MetricRecord: highest count first, then token
+        TopK<Integer> top = new TopK<>(MAX_TOKEN, Comparator.<Integer>comparingLong(id -> counts[id]).reversed()
+                .thenComparing(dictionary::token));
+        for (int id = 0; id < dictionary.size(); id++) {
+            if (counts[id] > 0) top.offer(id);
+        }
+        List<ProjectAnalysis.MetricRecord> topTokens = top.toList().stream()
+                .map(id -> new ProjectAnalysis.MetricRecord(dictionary.token(id), counts[id], 0.0f,
+                        joinedSamples(id)))
                 .toList();
 
         ProjectAnalysis.MetricsReport report = new ProjectAnalysis.MetricsReport(
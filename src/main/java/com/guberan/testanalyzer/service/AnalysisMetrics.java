@@ -0,0 +1,204 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation of one {@link TestAnalyzer#analyze} run: wall and CPU time per
+ * {@link TestAnalyzer.Phase}, plus I/O and cache counters.
+ * <p>
+ * Phases are timed on the calling thread ({@link #startPhase}/{@link #endPhase}); CPU time is the
+ * process CPU time, so it includes the worker threads. Counters may be updated from any thread.
+ */
+public final class AnalysisMetrics {
+
+    public static final String EXPORT_FILE_PROPERTY = "testanalyzer.metrics.file";
+
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+    private final Map<TestAnalyzer.Phase, Duration> wall = new EnumMap<>(TestAnalyzer.Phase.class);
+    private final Map<TestAnalyzer.Phase, Duration> cpu = new EnumMap<>(TestAnalyzer.Phase.class);
+
+    private final LongAdder filesRead = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder parseFailures = new LongAdder();
+    private final LongAdder sourceMethodsHits = new LongAdder();
+    private final LongAdder sourceMethodsMisses = new LongAdder();
+    private final LongAdder methodsAccepted = new LongAdder();
+
+    private long phaseWallStart;
+    private long phaseCpuStart;
+
+    /**
+     * @return {@code $testanalyzer.metrics.file}, or {@code null} when metrics are not exported
+     */
+    public static Path exportFile() {
+        String file = System.getProperty(EXPORT_FILE_PROPERTY);
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    public void startPhase() {
+        phaseWallStart = System.nanoTime();
+        phaseCpuStart = processCpuNanos();
+    }
+
+    /**
+     * Records the time elapsed since the previous {@link #startPhase}/{@code endPhase} call and starts the next phase.
+     */
+    public void endPhase(TestAnalyzer.Phase phase) {
+        long wallNow = System.nanoTime();
+        long cpuNow = processCpuNanos();
+        wall.put(phase, Duration.ofNanos(wallNow - phaseWallStart));
+        if (cpuNow >= 0 && phaseCpuStart >= 0) {
+            cpu.put(phase, Duration.ofNanos(cpuNow - phaseCpuStart));
+        }
+        phaseWallStart = wallNow;
+        phaseCpuStart = cpuNow;
+    }
+
+    /**
+     * A source file was read from disk (not served by the parse cache).
+     */
+    public void fileRead(long bytes) {
+        filesRead.increment();
+        bytesRead.add(bytes);
+    }
+
+    public void parseFailure() {
+        parseFailures.increment();
+    }
+
+    /**
+     * A lookup in the source-methods cache of the analyzer.
+     */
+    public void sourceMethodsLookup(boolean hit) {
+        (hit ? sourceMethodsHits : sourceMethodsMisses).increment();
+    }
+
+    public void methodAccepted() {
+        methodsAccepted.increment();
+    }
+
+    /**
+     * Writes the counters (not the phase times), for {@link #addCounters} in another process.
+     */
+    public void writeCounters(DataOutput out) throws IOException {
+        for (LongAdder counter : counters()) out.writeLong(counter.sum());
+    }
+
+    /**
+     * Adds the counters {@linkplain #writeCounters written} to {@code in} to these.
+     */
+    public void addCounters(DataInput in) throws IOException {
+        for (LongAdder counter : counters()) counter.add(in.readLong());
+    }
+
+    private List<LongAdder> counters() {
+        return List.of(filesRead, bytesRead, parseFailures, sourceMethodsHits, sourceMethodsMisses, methodsAccepted);
+    }
+
+    /**
+     * @return wall time of each completed phase
+     */
+    public Map<TestAnalyzer.Phase, Duration> wallTimes() {
+        return new EnumMap<>(wall);
+    }
+
+    public Duration totalWall() {
+        return wall.values().stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * @return test methods ingested per second of the parse phase
+     */
+    public long methodsPerSecond() {
+        Duration parse = wall.getOrDefault(TestAnalyzer.Phase.PARSE, Duration.ZERO);
+        return parse.isZero() ? 0 : methodsAccepted.sum() * 1_000_000_000L / parse.toNanos();
+    }
+
+    /**
+     * Flat, stable-keyed view of all measurements (times in milliseconds), for export.
+     */
+    public Map<String, Long> asMap() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        wall.forEach((phase, d) -> map.put("phase_wall_ms{phase=\"" + key(phase) + "\"}", d.toMillis()));
+        cpu.forEach((phase, d) -> map.put("phase_cpu_ms{phase=\"" + key(phase) + "\"}", d.toMillis()));
+        map.put("total_wall_ms", totalWall().toMillis());
+        map.put("files_read", filesRead.sum());
+        map.put("bytes_read", bytesRead.sum());
+        map.put("parse_failures", parseFailures.sum());
+        map.put("source_methods_cache_hits", sourceMethodsHits.sum());
+        map.put("source_methods_cache_misses", sourceMethodsMisses.sum());
+        map.put("methods_accepted", methodsAccepted.sum());
+        map.put("methods_per_second", methodsPerSecond());
+        return map;
+    }
+
+    /**
+     * Renders {@link #asMap()} in the Prometheus text format (e.g. for the node_exporter
+     * textfile collector), every metric prefixed with {@code testanalyzer_}.
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        asMap().forEach((name, value) -> sb.append("testanalyzer_").append(name).append(' ').append(value).append('\n'));
+        return sb.toString();
+    }
+
+    public void createMetricsReport(ProjectAnalysis projectAnalysis) {
+        long totalMs = totalWall().toMillis();
+        List<ProjectAnalysis.MetricRecord> items = new ArrayList<>();
+
+        wall.forEach((phase, d) -> {
+            Duration c = cpu.get(phase);
+            items.add(new ProjectAnalysis.MetricRecord(
+                    "Phase " + key(phase) + " (wall ms)",
+                    d.toMillis(),
+                    totalMs == 0 ? 0.0f : (float) d.toMillis() / totalMs,
+                    "wall: " + d.toMillis() + " ms\ncpu: " + (c == null ? "n/a" : c.toMillis() + " ms")));
+        });
+        items.add(ProjectAnalysis.MetricRecord.of("Total (wall ms)", totalMs));
+        items.add(ProjectAnalysis.MetricRecord.of("Files read", filesRead.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Bytes read", bytesRead.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Parse failures", parseFailures.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Source-methods cache hits", sourceMethodsHits.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Source-methods cache misses", sourceMethodsMisses.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Test methods accepted", methodsAccepted.sum()));
+        items.add(ProjectAnalysis.MetricRecord.of("Test methods / s (parse phase)", methodsPerSecond()));
+
+        projectAnalysis.addReport(new ProjectAnalysis.MetricsReport(
+                ProjectAnalysis.ReportId.METRICS,
+                "Analysis Metrics",
+                "Where the analysis time went: wall time per phase (percent of the total) and I/O / cache counters. CPU time per phase is shown in the details.",
+                "",
+                totalMs,
+                items));
+    }
+
+    private static String key(TestAnalyzer.Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return CPU time of the whole process, or {@code -1} if the JVM does not expose it
+     */
+    private static long processCpuNanos() {
+        if (OS instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,142 @@
+package com.guberan.testanalyzer.service;
+
+import jdk.jfr.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Java Flight Recorder events of the analysis, shown in JMC under "Test Convention Analyzer".
+ * <p>
+ * Every event type can be switched off (or given a threshold) in the recording settings; see
+ * {@code jfr/testanalyzer.jfc}.
+ * Fields are only filled in when the event is going to be committed, so a disabled event costs
+ * a timestamp at most.
+ */
+public final class AnalyzerEvents {
+
+    private static final String CATEGORY = "Test Convention Analyzer";
+
+    private AnalyzerEvents() {
+    }
+
+    @Name("com.guberan.testanalyzer.FileParsed")
+    @Label("File Parsed")
+    @Description("A Java file read and parsed (AST) or scanned (lexer only)")
+    @Category({CATEGORY, "Parsing"})
+    @StackTrace(false)
+    public static final class FileParsed extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Success")
+        boolean success;
+
+        /**
+         * Ends the event started with {@link #begin()} and commits it if enabled.
+         */
+        void finish(Path file, String engine, boolean success) {
+            finish(file, -1, engine, success);
+        }
+
+        /**
+         * @param bytes size of the parsed source, or {@code -1} to read it from disk
+         */
+        void finish(Path file, long bytes, String engine, boolean success) {
+            end();
+            if (!shouldCommit()) return;
+            this.path = file.toString();
+            this.bytes = bytes >= 0 ? bytes : sizeOf(file);
+            this.engine = engine;
+            this.success = success;
+            commit();
+        }
+    }
+
+    @Name("com.guberan.testanalyzer.DirectoryScanned")
+    @Label("Directory Scanned")
+    @Description("A directory listed by the project scanner (subdirectories not included)")
+    @Category({CATEGORY, "Scanning"})
+    @StackTrace(false)
+    public static final class DirectoryScanned extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Entries")
+        int entries;
+
+        @Label("Java Files")
+        int javaFiles;
+
+        void finish(Path dir, int entries, int javaFiles) {
+            end();
+            if (!shouldCommit()) return;
+            this.path = dir.toString();
+            this.entries = entries;
+            this.javaFiles = javaFiles;
+            commit();
+        }
+    }
+
+    @Name("com.guberan.testanalyzer.MethodsIngested")
+    @Label("Methods Ingested")
+    @Description("The test methods of one test file fed to the models")
+    @Category({CATEGORY, "Models"})
+    @StackTrace(false)
+    public static final class MethodsIngested extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Test Class")
+        String testClass;
+
+        @Label("Methods")
+        int methods;
+
+        void finish(Path file, String testClass, int methods) {
+            end();
+            if (!shouldCommit()) return;
+            this.path = file.toString();
+            this.testClass = testClass;
+            this.methods = methods;
+            commit();
+        }
+    }
+
+    @Name("com.guberan.testanalyzer.ReportCreated")
+    @Label("Report Created")
+    @Description("One report of the analysis built from the models")
+    @Category({CATEGORY, "Reports"})
+    @StackTrace(false)
+    public static final class ReportCreated extends Event {
+
+        @Label("Report")
+        String report;
+
+        void finish(String report) {
+            end();
+            if (!shouldCommit()) return;
+            this.report = report;
+            commit();
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.util.PathUtil;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.transport.URIish;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bare clones kept between analyses, one per normalized remote URL: a repeated analysis of the
+ * same URL fetches the new commits instead of cloning again.
+ * <p>
+ * Each clone {@code <hash>.git} has two lock files. {@code <hash>.update.lock} is held
+ * exclusively while the clone is created or fetched. {@code <hash>.use.lock} is held shared by
+ * every {@link Lease}, and eviction only deletes clones whose use lock it can take exclusively,
+ * so clones in use (by this or another process) are never deleted. Least recently used clones
+ * are evicted once the cache exceeds {@link #setMaxBytes max bytes}.
+ */
+@Slf4j
+public class CloneCache {
+
+    public static final String MAX_BYTES_PROPERTY = "testanalyzer.clones.maxBytes";
+
+    private static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024 * 1024;
+
+    // file locks are held per JVM, not per thread: threads of this JVM share them
+    private static final Map<Path, Object> UPDATE_MONITORS = new ConcurrentHashMap<>();
+    private static final Map<Path, SharedLock> USE_LOCKS = new HashMap<>();
+
+    private final Path dir;
+    private final GitService git;
+
+    /**
+     * Disk budget of the cache; the clone being leased is never evicted, even if larger.
+     */
+    @Setter
+    private long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+
+    public CloneCache(Path dir, GitService git) {
+        this.dir = dir;
+        this.git = git;
+    }
+
+    /**
+     * @return a cache under the {@link ParseCache#defaultDirectory() cache directory}, cloning with default settings
+     */
+    public static CloneCache defaultCache() {
+        return new CloneCache(ParseCache.defaultDirectory().resolve("clones"), new GitService());
+    }
+
+    /**
+     * Returns an up-to-date bare clone of {@code url}: cloned on first use, fetched afterwards.
+     * The clone is not evicted until the lease is closed.
+     */
+    public Lease acquire(String url) {
+        String key = key(url);
+        Path gitDir = dir.resolve(key + ".git");
+        try {
+            Files.createDirectories(dir);
+            Lease lease = new Lease(gitDir, lockUse(gitDir));
+            try {
+                update(url, gitDir);
+                Files.setLastModifiedTime(gitDir, FileTime.fromMillis(System.currentTimeMillis()));
+                evict(gitDir);
+                return lease;
+            } catch (RuntimeException | IOException e) {
+                lease.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Clone cache failed for " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void update(String url, Path gitDir) throws IOException {
+        Path lockFile = lockFile(gitDir, "update");
+        synchronized (UPDATE_MONITORS.computeIfAbsent(lockFile, f -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                if (Files.isRegularFile(gitDir.resolve("HEAD"))) {
+                    git.fetch(gitDir);
+                } else {
+                    PathUtil.deleteTree(gitDir); // leftover of an interrupted clone
+                    git.cloneBare(url, gitDir);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes least recently used clones (other than {@code keep} and clones in use) while the
+     * cache is over budget.
+     */
+    private void evict(Path keep) throws IOException {
+        List<Path> clones;
+        try (Stream<Path> entries = Files.list(dir)) {
+            clones = entries.filter(p -> p.getFileName().toString().endsWith(".git"))
+                    .sorted(Comparator.comparing(CloneCache::lastModified))
+                    .toList();
+        }
+        Map<Path, Long> sizes = new HashMap<>();
+        long total = 0;
+        for (Path clone : clones) {
+            long size = sizeOf(clone);
+            sizes.put(clone, size);
+            total += size;
+        }
+
+        for (Path clone : clones) {
+            if (total <= maxBytes) break;
+            if (clone.equals(keep)) continue;
+            if (tryDelete(clone)) {
+                total -= sizes.get(clone);
+                log.info("Evicted clone {} ({} MB)", clone, sizes.get(clone) / (1024 * 1024));
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the clone was not in use and has been deleted
+     */
+    private static boolean tryDelete(Path gitDir) throws IOException {
+        synchronized (USE_LOCKS) {
+            if (USE_LOCKS.containsKey(gitDir)) return false; // in use in this JVM
+            Path lockFile = lockFile(gitDir, "use");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.tryLock()) {
+                if (lock == null) return false; // in use by another process
+                PathUtil.deleteTree(gitDir);
+                return true;
+            } catch (OverlappingFileLockException e) {
+                return false;
+            }
+        }
+    }
+
+    private static SharedLock lockUse(Path gitDir) throws IOException {
+        synchronized (USE_LOCKS) {
+            SharedLock shared = USE_LOCKS.get(gitDir);
+            if (shared == null) {
+                FileChannel channel = FileChannel.open(lockFile(gitDir, "use"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try {
+                    shared = new SharedLock(channel, channel.lock(0, Long.MAX_VALUE, true));
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+                USE_LOCKS.put(gitDir, shared);
+            }
+            shared.users++;
+            return shared;
+        }
+    }
+
+    private static void unlockUse(Path gitDir, SharedLock shared) {
+        synchronized (USE_LOCKS) {
+            if (--shared.users > 0) return;
+            USE_LOCKS.remove(gitDir);
+            try {
+                shared.lock.release();
+                shared.channel.close();
+            } catch (IOException e) {
+                log.debug("Could not release {}: {}", gitDir, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return a file name for {@code url} that is the same for equivalent spellings of it
+     * (scheme and host case, user name, trailing {@code /} or {@code .git})
+     */
+    static String key(String url) {
+        String normalized;
+        try {
+            URIish uri = new URIish(url.trim());
+            String path = uri.getPath() == null ? "" : uri.getPath();
+            while (path.endsWith("/")) path = path.substring(0, path.length() - 1);
+            if (path.endsWith(".git")) path = path.substring(0, path.length() - 4);
+            if (uri.getHost() == null) {
+                normalized = Path.of(path).toAbsolutePath().normalize().toString();
+            } else {
+                String scheme = uri.getScheme() == null ? "ssh" : uri.getScheme().toLowerCase(Locale.ROOT);
+                normalized = scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                        + (uri.getPort() > 0 ? ":" + uri.getPort() : "")
+                        + (path.startsWith("/") ? path : "/" + path);
+            }
+        } catch (URISyntaxException e) {
+            normalized = url.trim();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path lockFile(Path gitDir, String kind) {
+        return gitDir.resolveSibling(gitDir.getFileName() + "." + kind + ".lock");
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOf(Path tree) throws IOException {
+        long[] size = {0};
+        Files.walkFileTree(tree, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                size[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+
+    private static final class SharedLock {
+        private final FileChannel channel;
+        private final FileLock lock;
+        private int users;
+
+        SharedLock(FileChannel channel, FileLock lock) {
+            this.channel = channel;
+            this.lock = lock;
+        }
+    }
+
+    /**
+     * A bare clone that stays in the cache until closed.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Path gitDir;
+        private final SharedLock lock;
+        private boolean closed;
+
+        private Lease(Path gitDir, SharedLock lock) {
+            this.gitDir = gitDir;
+            this.lock = lock;
+        }
+
+        public Path gitDir() {
+            return gitDir;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) return;
+            closed = true;
+            unlockUse(gitDir, lock);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.guberan.testanalyzer.service;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of file stamps (size + last-modified time), used to detect which files
+ * were added, modified or deleted between two scans.
+ *
+ * @param stamps mapping of file -> stamp
+ */
+public record FileIndex(Map<Path, Stamp> stamps) {
+
+    public static final FileIndex EMPTY = new FileIndex(Map.of());
+
+    /**
+     * Compares this (newer) snapshot with {@code previous}.
+     */
+    public Changes diff(FileIndex previous) {
+        Set<Path> added = new HashSet<>();
+        Set<Path> modified = new HashSet<>();
+        Set<Path> deleted = new HashSet<>();
+
+        stamps.forEach((path, stamp) -> {
+            Stamp old = previous.stamps.get(path);
+            if (old == null) {
+                added.add(path);
+            } else if (!old.equals(stamp)) {
+                modified.add(path);
+            }
+        });
+        for (Path path : previous.stamps.keySet()) {
+            if (!stamps.containsKey(path)) deleted.add(path);
+        }
+        return new Changes(added, modified, deleted);
+    }
+
+    /**
+     * @param size  file size in bytes
+     * @param mtime last-modified time in milliseconds
+     */
+    public record Stamp(long size, long mtime) {
+    }
+
+    /**
+     * Result of {@link #diff(FileIndex)}.
+     */
+    public record Changes(Set<Path> added, Set<Path> modified, Set<Path> deleted) {
+
+        public boolean isEmpty() {
+            return added.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+        }
+
+        public int size() {
+            return added.size() + modified.size() + deleted.size();
+        }
+    }
+}
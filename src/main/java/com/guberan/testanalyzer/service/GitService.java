@@ -1,29 +1,107 @@
 package com.guberan.testanalyzer.service;
 
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.*;
+import org.eclipse.jgit.transport.RefSpec;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 public class GitService {
 
-    public Path cloneToTemp(String url) {
-        try {
-            Path dir = Files.createTempDirectory("test-analyzer-clone-");
-            log.info("Cloning {} into {}", url, dir);
+    /**
+     * Commits of history to fetch; {@code 0} = full history. The analysis only reads the tip.
+     */
+    @Setter
+    private int depth = 1;
+
+    /**
+     * Fetch only the default branch instead of every branch.
+     */
+    @Setter
+    private boolean singleBranch = true;
 
-            Git.cloneRepository()
-                    .setURI(url)
-                    .setDirectory(dir.toFile())
-                    .setCloneAllBranches(false)
-                    .call()
-                    .close();
+    /**
+     * Clones {@code url} without a working tree, for {@link GitTreeSource}.
+     *
+     * @return the git directory of the bare clone
+     */
+    public Path cloneBare(String url) {
+        try {
+            return cloneBare(url, Files.createTempDirectory("test-analyzer-clone-"));
+        } catch (IOException e) {
+            throw new RuntimeException("Git clone failed: " + e.getMessage(), e);
+        }
+    }
 
+    /**
+     * Clones {@code url} without a working tree into {@code dir} (created if missing).
+     *
+     * @return {@code dir}
+     */
+    public Path cloneBare(String url, Path dir) {
+        try {
+            log.info("Cloning {} into {} (bare, depth {}, single branch {})", url, dir, depth, singleBranch);
+            cloneCommand(url).setDirectory(dir.toFile()).setBare(true).call().close();
             return dir;
         } catch (Exception e) {
             throw new RuntimeException("Git clone failed: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Brings the checked-out branch of the bare clone at {@code gitDir} up to date with its
+     * remote (with the configured depth); the branch is moved even if it does not fast-forward.
+     */
+    public void fetch(Path gitDir) {
+        try (Git git = Git.open(gitDir.toFile())) {
+            String branch = git.getRepository().getFullBranch();
+            log.info("Fetching {} into {} (depth {})", branch, gitDir, depth);
+            FetchCommand fetch = git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setRefSpecs(new RefSpec("+" + branch + ":" + branch));
+            if (depth > 0) fetch.setDepth(depth);
+            fetch.call();
+        } catch (Exception e) {
+            throw new RuntimeException("Git fetch failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CloneCommand cloneCommand(String url) throws GitAPIException {
+        CloneCommand clone = Git.cloneRepository()
+                .setURI(url)
+                .setCloneAllBranches(false);
+        if (depth > 0) clone.setDepth(depth);
+        if (singleBranch) {
+            String branch = defaultBranch(url);
+            if (branch != null) clone.setBranchesToClone(List.of(branch)).setBranch(branch);
+        }
+        return clone;
+    }
+
+    /**
+     * @return the branch the remote {@code HEAD} points to, or {@code null} if the remote does not tell
+     */
+    private static String defaultBranch(String url) throws GitAPIException {
+        Map<String, Ref> refs = Git.lsRemoteRepository().setRemote(url).callAsMap();
+        Ref head = refs.get(Constants.HEAD);
+        if (head == null) return null;
+        if (head.isSymbolic()) return head.getTarget().getName();
+        // no symref advertised: the branch at the same commit
+        return refs.values().stream()
+                .filter(ref -> ref.getName().startsWith(Constants.R_HEADS))
+                .filter(ref -> head.getObjectId() != null && head.getObjectId().equals(ref.getObjectId()))
+                .map(Ref::getName)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,160 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.service.ProjectScanner.ScanResult;
+import com.guberan.testanalyzer.util.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.errors.LargeObjectException;
+import org.eclipse.jgit.lib.*;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A commit of a Git repository read straight from the object database: the tree is listed with
+ * a {@link TreeWalk} and {@code .java} blobs are decoded on demand, so no working tree is written.
+ * <p>
+ * Files are named by paths under a virtual root (the git directory) that is the same for every
+ * commit, and stamped with their blob id: an incremental {@link TestAnalyzer} moved from one
+ * commit to another only re-reads the files that differ. The directories {@link ProjectScanner}
+ * skips are skipped here too, and symbolic links and submodules are ignored, so the
+ * {@link ScanResult} matches a scan of the checkout.
+ */
+@Slf4j
+public class GitTreeSource implements ProjectSource, AutoCloseable {
+
+    private final Repository repository;
+    private final ObjectId commitId;
+    private final ObjectId treeId;
+    private final boolean ownsRepository;
+    private final Path root;
+    private final Map<Path, ObjectId> blobs = new ConcurrentHashMap<>();
+
+    private GitTreeSource(Repository repository, ObjectId commitId, ObjectId treeId, boolean ownsRepository) {
+        this.repository = repository;
+        this.commitId = commitId;
+        this.treeId = treeId;
+        this.ownsRepository = ownsRepository;
+        this.root = repository.getDirectory().toPath().toAbsolutePath();
+    }
+
+    /**
+     * Opens the repository at {@code gitDir} (bare or not) at {@code revision} (e.g. {@code HEAD}).
+     */
+    public static GitTreeSource open(Path gitDir, String revision) throws IOException {
+        Repository repository = new FileRepositoryBuilder().setGitDir(gitDir.toFile()).setMustExist(true).build();
+        try {
+            ObjectId commitId = repository.resolve(revision);
+            if (commitId == null) throw new IOException("Unknown revision " + revision + " in " + gitDir);
+            return at(repository, commitId, true);
+        } catch (IOException | RuntimeException e) {
+            repository.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A commit of an already open repository, which {@link #close()} leaves open.
+     */
+    public static GitTreeSource of(Repository repository, ObjectId commitId) throws IOException {
+        return at(repository, commitId, false);
+    }
+
+    private static GitTreeSource at(Repository repository, ObjectId commitId, boolean ownsRepository) throws IOException {
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            ObjectId treeId = revWalk.parseCommit(commitId).getTree().copy();
+            return new GitTreeSource(repository, commitId.copy(), treeId, ownsRepository);
+        }
+    }
+
+    public ObjectId commitId() {
+        return commitId;
+    }
+
+    @Override
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public ScanResult scan(Consumer<Path> onJavaFile) {
+        Map<String, Long> extensionCounts = new HashMap<>();
+        Map<Path, FileIndex.Stamp> javaStamps = new HashMap<>();
+        List<Path> javaFiles = new ArrayList<>();
+        Set<Path> moduleDirs = new HashSet<>();
+        long totalFiles = 0;
+
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(treeId);
+            while (treeWalk.next()) {
+                if (treeWalk.isSubtree()) {
+                    if (!ProjectScanner.EXCLUDED_DIRS.contains(treeWalk.getNameString())) treeWalk.enterSubtree();
+                    continue;
+                }
+                FileMode mode = treeWalk.getFileMode(0);
+                if (mode != FileMode.REGULAR_FILE && mode != FileMode.EXECUTABLE_FILE) continue; // links, submodules
+
+                totalFiles++;
+                String name = treeWalk.getNameString();
+                if (ProjectScanner.BUILD_FILES.contains(name)) moduleDirs.add(root.resolve(treeWalk.getPathString()).getParent());
+                String ext = StringUtil.extensionOf(name);
+                extensionCounts.merge(ext, 1L, Long::sum);
+                if (!"java".equals(ext)) continue;
+
+                Path file = root.resolve(treeWalk.getPathString());
+                ObjectId blob = treeWalk.getObjectId(0);
+                blobs.put(file, blob);
+                javaStamps.put(file, stampOf(blob));
+                javaFiles.add(file);
+                onJavaFile.accept(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading tree of " + commitId.name() + " failed: " + e.getMessage(), e);
+        }
+
+        log.info("Listed {} files at {}", totalFiles, commitId.abbreviate(10).name());
+        return new ScanResult(totalFiles, extensionCounts, javaFiles, new FileIndex(javaStamps), moduleDirs);
+    }
+
+    @Override
+    public byte[] read(Path file) throws IOException {
+        ObjectId blob = blobs.get(file);
+        if (blob == null) throw new IOException("Not a .java file of the tree: " + file);
+        try (ObjectReader reader = repository.newObjectReader()) {
+            return reader.open(blob, Constants.OBJ_BLOB).getBytes();
+        } catch (LargeObjectException e) {
+            throw new IOException("Blob too large: " + file, e);
+        }
+    }
+
+    @Override
+    public boolean onDisk() {
+        return false;
+    }
+
+    @Override
+    public boolean stamped() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (ownsRepository) repository.close();
+    }
+
+    /**
+     * Blobs are not sized while listing the tree: the stamp is the leading 64 bits of the blob id.
+     */
+    private static FileIndex.Stamp stampOf(ObjectId blob) {
+        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        blob.copyRawTo(raw, 0);
+        return new FileIndex.Stamp(-1, ByteBuffer.wrap(raw).getLong());
+    }
+}
@@ -0,0 +1,139 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.gui.RunPanel;
+import com.guberan.testanalyzer.model.ProjectAnalysis;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * How the conventions of a repository evolved: analyzes sampled commits of its first-parent
+ * history, oldest first, with a single incremental {@link TestAnalyzer}. The first sample is a
+ * full analysis; each following one only re-parses the {@code .java} files whose blob changed
+ * (see {@link GitTreeSource}), retracting their previous contributions from the models.
+ */
+@Slf4j
+public class HistoryAnalyzer {
+
+    /**
+     * Which commits are analyzed: the last commit of each period.
+     */
+    @Setter
+    private Sampling sampling = Sampling.MONTH;
+
+    /**
+     * Maximum number of snapshots; beyond that, samples are thinned out evenly (keeping the latest).
+     */
+    @Setter
+    private int maxSamples = 100;
+
+    @Setter
+    private int parallelism = 1;
+
+    @Setter
+    private TestAnalyzer.ExtractionEngine engine = TestAnalyzer.ExtractionEngine.SCANNER;
+
+    /**
+     * Analyzes the history of {@code revision} (e.g. {@code HEAD}) in the repository at {@code gitDir}.
+     *
+     * @return one snapshot per sampled commit, oldest first
+     */
+    public List<Snapshot> analyze(Path gitDir, String revision, Consumer<RunPanel.ProgressInfo> progress) {
+        try (Repository repository = new FileRepositoryBuilder().setGitDir(gitDir.toFile()).setMustExist(true).build()) {
+            ObjectId head = repository.resolve(revision);
+            if (head == null) throw new IOException("Unknown revision " + revision + " in " + gitDir);
+            List<RevCommit> samples = sample(repository, head);
+            log.info("Analyzing {} commits of {} (one per {})", samples.size(), gitDir, sampling.name().toLowerCase(Locale.ROOT));
+
+            TestAnalyzer analyzer = new TestAnalyzer();
+            analyzer.setIncremental(true);
+            analyzer.setParallelism(parallelism);
+            analyzer.setEngine(engine);
+
+            List<Snapshot> snapshots = new ArrayList<>(samples.size());
+            for (int i = 0; i < samples.size(); i++) {
+                RevCommit commit = samples.get(i);
+                progress.accept(new RunPanel.ProgressInfo("Analyzing commit " + commit.abbreviate(10).name()
+                        + " (" + (i + 1) + "/" + samples.size() + ")…", samples.size(), i));
+                try (GitTreeSource source = GitTreeSource.of(repository, commit)) {
+                    ProjectAnalysis analysis = analyzer.analyze(source, p -> {
+                    });
+                    Map<String, Long> metrics = analyzer.getMetrics().asMap();
+                    snapshots.add(new Snapshot(commit.name(), Instant.ofEpochSecond(commit.getCommitTime()), analysis,
+                            metrics.get("files_read"), metrics.get("total_wall_ms")));
+                }
+            }
+            return snapshots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("History analysis of " + gitDir + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the last first-parent commit of each period, oldest first, at most {@link #maxSamples}
+     */
+    List<RevCommit> sample(Repository repository, ObjectId head) throws IOException {
+        Map<Object, RevCommit> latestByPeriod = new LinkedHashMap<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            revWalk.setFirstParent(true);
+            revWalk.markStart(revWalk.parseCommit(head));
+            for (RevCommit commit : revWalk) {
+                // newest first: the first commit seen in a period is its last one
+                latestByPeriod.putIfAbsent(sampling.period(commit), commit);
+            }
+        }
+        List<RevCommit> samples = new ArrayList<>(latestByPeriod.values());
+        Collections.reverse(samples);
+        if (samples.size() <= maxSamples) return samples;
+
+        List<RevCommit> thinned = new ArrayList<>(maxSamples);
+        for (int i = 0; i < maxSamples; i++) {
+            // evenly spaced, the last index being the newest commit
+            thinned.add(samples.get((int) ((long) (samples.size() - 1) * (i + 1) / maxSamples)));
+        }
+        return thinned;
+    }
+
+    public enum Sampling {
+        COMMIT, DAY, WEEK, MONTH;
+
+        Object period(RevCommit commit) {
+            LocalDate date = Instant.ofEpochSecond(commit.getCommitTime()).atZone(ZoneOffset.UTC).toLocalDate();
+            return switch (this) {
+                case COMMIT -> commit.getId();
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> YearMonth.from(date);
+            };
+        }
+    }
+
+    /**
+     * The reports of one sampled commit.
+     *
+     * @param commit    commit id
+     * @param time      commit time
+     * @param filesRead {@code .java} files read for this snapshot (all of them for the first one,
+     *                  the changed ones afterwards)
+     * @param wallMs    analysis time of this snapshot
+     */
+    public record Snapshot(String commit, Instant time, ProjectAnalysis analysis, long filesRead, long wallMs) {
+    }
+}
@@ -3,23 +3,53 @@ package com.guberan.testanalyzer.service;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
+import com.guberan.testanalyzer.model.TestFileInfo;
+import com.guberan.testanalyzer.model.TestMethodInfo;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
+/**
+ * Thread-safe parsing service.
+ *
+ * <p>{@link JavaParser} instances are not thread-safe, so the service keeps a pool of them
+ * (all sharing the same {@link ParserConfiguration}) and lends one to each parse. The pool
+ * grows to the number of threads parsing concurrently, whether platform or virtual threads.
+ */
 @Slf4j
 public class JavaAstService {
 
-    private final JavaParser parser;
+    /**
+     * Maximum number of parsed-but-not-consumed units held by {@link #parseAll}.
+     */
+    private static final int MAX_IN_FLIGHT = 256;
+
+    private final ParserConfiguration configuration;
+    private final Queue<JavaParser> parsers = new ConcurrentLinkedQueue<>();
 
     public JavaAstService() {
-        var cfg = new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_25);
-        this.parser = new JavaParser(cfg);
+        this.configuration = new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_25);
     }
 
     public Optional<CompilationUnit> parse(Path javaFile) {
+        AnalyzerEvents.FileParsed event = new AnalyzerEvents.FileParsed();
+        event.begin();
+        Optional<CompilationUnit> compilationUnit = doParse(javaFile);
+        event.finish(javaFile, "ast", compilationUnit.isPresent());
+        return compilationUnit;
+    }
+
+    private Optional<CompilationUnit> doParse(Path javaFile) {
+        JavaParser parser = borrowParser();
         try {
             var result = parser.parse(javaFile);
             if (result.isSuccessful() && result.getResult().isPresent()) {
@@ -30,6 +60,106 @@ public class JavaAstService {
         } catch (IOException e) {
             log.debug("Parse IO error in {}: {}", javaFile, e.getMessage());
             return Optional.empty();
+        } finally {
+            parsers.offer(parser);
+        }
+    }
+
+    /**
+     * Parses {@code source}, the already-read content of {@code javaFile}.
+     */
+    public Optional<CompilationUnit> parse(Path javaFile, String source) {
+        AnalyzerEvents.FileParsed event = new AnalyzerEvents.FileParsed();
+        event.begin();
+        JavaParser parser = borrowParser();
+        Optional<CompilationUnit> compilationUnit = Optional.empty();
+        try {
+            var result = parser.parse(source);
+            if (result.isSuccessful() && result.getResult().isPresent()) {
+                compilationUnit = result.getResult();
+            } else {
+                log.debug("Parse issues in {}: {}", javaFile, result.getProblems());
+            }
+        } finally {
+            parsers.offer(parser);
+        }
+        event.finish(javaFile, source.length(), "ast", compilationUnit.isPresent());
+        return compilationUnit;
+    }
+
+    /**
+     * Parses a test source and reduces it to the facts the models consume.
+     *
+     * @return the facts, or empty if the file could not be read or parsed
+     */
+    public Optional<TestFileInfo> parseTestFile(Path javaFile) {
+        return parse(javaFile).map(JavaAstService::toTestFileInfo);
+    }
+
+    /**
+     * Same as {@link #parseTestFile(Path)} on the already-read content of {@code javaFile}.
+     */
+    public Optional<TestFileInfo> parseTestFile(Path javaFile, String source) {
+        return parse(javaFile, source).map(JavaAstService::toTestFileInfo);
+    }
+
+    static TestFileInfo toTestFileInfo(CompilationUnit compilationUnit) {
+        String pkg = compilationUnit.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
+        List<String> typeNames = compilationUnit.getTypes().stream().map(NodeWithSimpleName::getNameAsString).toList();
+
+        // test methods: methods with @Test-ish annotations
+        List<TestMethodInfo> testMethods = compilationUnit.findAll(MethodDeclaration.class).stream()
+                .map(m -> new TestMethodInfo(m.getNameAsString(), m.getAnnotations().stream().map(AnnotationExpr::getNameAsString).toList()))
+                .filter(TestMethodInfo::isTest)
+                .toList();
+
+        return new TestFileInfo(pkg, typeNames, testMethods);
+    }
+
+    /**
+     * Parses a batch of files on {@code executor} and streams the results back to
+     * {@code onParsed} as they complete (completion order, not input order).
+     *
+     * <p>The callback runs on the calling thread. At most {@value #MAX_IN_FLIGHT} files are
+     * submitted ahead of the consumer, so a slow consumer does not accumulate ASTs.
+     *
+     * @param javaFiles files to parse
+     * @param executor  executor running the parse tasks
+     * @param onParsed  receives one {@link ParsedFile} per input path (failed parses included)
+     * @throws RuntimeException if interrupted while waiting for results
+     */
+    public void parseAll(List<Path> javaFiles, Executor executor, Consumer<ParsedFile> onParsed) {
+        CompletionService<ParsedFile> completion = new ExecutorCompletionService<>(executor);
+        int submitted = 0;
+        int consumed = 0;
+        try {
+            while (consumed < javaFiles.size()) {
+                while (submitted < javaFiles.size() && submitted - consumed < MAX_IN_FLIGHT) {
+                    Path file = javaFiles.get(submitted++);
+                    completion.submit(() -> new ParsedFile(file, parse(file)));
+                }
+                onParsed.accept(completion.take().get());
+                consumed++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parsing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parsing failed: " + e.getCause().getMessage(), e.getCause());
         }
     }
-}
\ No newline at end of file
+
+    private JavaParser borrowParser() {
+        JavaParser parser = parsers.poll();
+        return parser != null ? parser : new JavaParser(configuration);
+    }
+
+    /**
+     * One result of {@link #parseAll}.
+     *
+     * @param path            the parsed file
+     * @param compilationUnit the AST, or empty if the file could not be read or parsed
+     */
+    public record ParsedFile(Path path, Optional<CompilationUnit> compilationUnit) {
+    }
+}
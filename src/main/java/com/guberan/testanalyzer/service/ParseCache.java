@@ -0,0 +1,317 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.model.TestFileInfo;
+import com.guberan.testanalyzer.model.TestMethodInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Persistent cache of extraction results for one project root.
+ *
+ * <p>Maps each file (relative path, validated by size + mtime) to the compact facts the
+ * models consume: {@link TestFileInfo} for test sources and the non-private method names
+ * for production sources. A file whose size and mtime are unchanged is never read again.
+ *
+ * <p>The cache lives in a single file under a user-configurable directory, named after
+ * a hash of the project root and the {@linkplain TestAnalyzer.ExtractionEngine extraction engine}:
+ * the engines may extract different facts from the same file (the scanner skips method bodies
+ * the parser fails on), so each has its own entries. {@link #save} writes back the entries used during the current
+ * run and the loaded entries of files still in the project, so deleted files drop out while
+ * an incremental run, which only looks up changed files, keeps the others.
+ *
+ * <p>Thread-safe: lookups may run concurrently from analysis workers.
+ */
+@Slf4j
+public class ParseCache {
+
+    /**
+     * System property overriding {@link #defaultDirectory()}.
+     */
+    public static final String DIR_PROPERTY = "testanalyzer.cache.dir";
+
+    private static final int MAGIC = 0x54434143; // "TCAC"
+    private static final int VERSION = 2; // 2: engine in the header
+
+    private final Path cacheFile;
+    private final Path root;
+    private final TestAnalyzer.ExtractionEngine engine;
+
+    // entries read from disk (read-only after load) and entries used by this run
+    private final Map<String, TestEntry> loadedTests;
+    private final Map<String, SourceEntry> loadedSources;
+    private final Map<String, TestEntry> usedTests = new ConcurrentHashMap<>();
+    private final Map<String, SourceEntry> usedSources = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private ParseCache(Path cacheFile, Path root, TestAnalyzer.ExtractionEngine engine,
+                       Map<String, TestEntry> tests, Map<String, SourceEntry> sources) {
+        this.cacheFile = cacheFile;
+        this.root = root;
+        this.engine = engine;
+        this.loadedTests = tests;
+        this.loadedSources = sources;
+    }
+
+    /**
+     * @return {@code $testanalyzer.cache.dir}, else {@code ~/.cache/test-convention-analyzer}
+     */
+    public static Path defaultDirectory() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        if (dir != null && !dir.isBlank()) return Path.of(dir);
+        return Path.of(System.getProperty("user.home"), ".cache", "test-convention-analyzer");
+    }
+
+    /**
+     * A cache that never stores anything: every lookup calls the loader.
+     */
+    public static ParseCache disabled() {
+        return new ParseCache(null, null, null, Map.of(), Map.of());
+    }
+
+    /**
+     * Opens (or starts) the cache of {@code projectRoot} under {@code cacheDir} for the facts
+     * extracted by {@code engine}. An unreadable or incompatible cache file is ignored and will be overwritten.
+     */
+    public static ParseCache open(Path cacheDir, Path projectRoot, TestAnalyzer.ExtractionEngine engine) {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        Path file = cacheDir.resolve("parse-" + hash(root.toString()) + "-" + engine.name().toLowerCase(Locale.ROOT) + ".bin");
+
+        Map<String, TestEntry> tests = new HashMap<>();
+        Map<String, SourceEntry> sources = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                read(in, root, engine, tests, sources);
+                log.info("Loaded parse cache {} ({} test files, {} source files)", file, tests.size(), sources.size());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable parse cache {}: {}", file, e.getMessage());
+                tests.clear();
+                sources.clear();
+            }
+        }
+        return new ParseCache(file, root, engine, tests, sources);
+    }
+
+    /**
+     * Returns the cached facts for {@code testFile}, or computes them with {@code loader}.
+     * Failed extractions (empty) are cached too.
+     */
+    public Optional<TestFileInfo> testFile(Path testFile, Function<Path, Optional<TestFileInfo>> loader) {
+        if (cacheFile == null) return loader.apply(testFile);
+        FileStamp stamp = stamp(testFile);
+        if (stamp == null) return loader.apply(testFile);
+
+        TestEntry entry = loadedTests.get(stamp.key);
+        if (entry != null && entry.size == stamp.size && entry.mtime == stamp.mtime) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            entry = new TestEntry(stamp.size, stamp.mtime, loader.apply(testFile).orElse(null));
+        }
+        usedTests.put(stamp.key, entry);
+        return Optional.ofNullable(entry.info);
+    }
+
+    /**
+     * Returns the cached non-private method names of {@code sourceFile}, or computes them with {@code loader}.
+     */
+    public Set<String> sourceMethods(Path sourceFile, Function<Path, Set<String>> loader) {
+        if (cacheFile == null) return loader.apply(sourceFile);
+        FileStamp stamp = stamp(sourceFile);
+        if (stamp == null) return loader.apply(sourceFile);
+
+        SourceEntry entry = loadedSources.get(stamp.key);
+        if (entry != null && entry.size == stamp.size && entry.mtime == stamp.mtime) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            entry = new SourceEntry(stamp.size, stamp.mtime, loader.apply(sourceFile));
+        }
+        usedSources.put(stamp.key, entry);
+        return entry.methods;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Writes the entries used by this run back to disk (atomically replacing the previous file),
+     * with the loaded entries of the other {@code files}: those an incremental run did not need.
+     * Failures are logged, never thrown: the cache is an optimization.
+     *
+     * @param files the files of the project, as scanned by this run
+     */
+    public void save(Collection<Path> files) {
+        if (cacheFile == null) return;
+        for (Path file : files) {
+            String key = key(file);
+            if (key == null) continue;
+            TestEntry test = loadedTests.get(key);
+            if (test != null) usedTests.putIfAbsent(key, test);
+            SourceEntry source = loadedSources.get(key);
+            if (source != null) usedSources.putIfAbsent(key, source);
+        }
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tmp = Files.createTempFile(cacheFile.getParent(), "parse-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                write(out);
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved parse cache {} ({} hits, {} misses)", cacheFile, hits.get(), misses.get());
+        } catch (IOException e) {
+            log.warn("Could not save parse cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    /* ---- */
+
+    private FileStamp stamp(Path file) {
+        String key = key(file);
+        if (key == null) return null;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileStamp(key, attrs.size(), attrs.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the path of {@code file} relative to the root, or {@code null} if it is not under the root
+     */
+    private String key(Path file) {
+        try {
+            return root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(root.toString());
+        out.writeUTF(engine.name());
+
+        out.writeInt(usedTests.size());
+        for (var e : usedTests.entrySet()) {
+            TestEntry entry = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeLong(entry.size);
+            out.writeLong(entry.mtime);
+            out.writeBoolean(entry.info != null);
+            if (entry.info == null) continue;
+
+            out.writeUTF(entry.info.packageName());
+            writeStrings(out, entry.info.typeNames());
+            out.writeInt(entry.info.testMethods().size());
+            for (TestMethodInfo m : entry.info.testMethods()) {
+                out.writeUTF(m.name());
+                writeStrings(out, m.annotations());
+            }
+        }
+
+        out.writeInt(usedSources.size());
+        for (var e : usedSources.entrySet()) {
+            SourceEntry entry = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeLong(entry.size);
+            out.writeLong(entry.mtime);
+            writeStrings(out, entry.methods);
+        }
+    }
+
+    private static void read(DataInputStream in, Path root, TestAnalyzer.ExtractionEngine engine,
+                             Map<String, TestEntry> tests,
+                             Map<String, SourceEntry> sources) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not a parse cache");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("unsupported version " + version);
+        if (!in.readUTF().equals(root.toString())) throw new IOException("cache belongs to another root");
+        if (!in.readUTF().equals(engine.name())) throw new IOException("cache belongs to another engine");
+
+        // annotation names repeat in almost every entry: share the instances
+        Map<String, String> pool = new HashMap<>();
+
+        int testCount = in.readInt();
+        for (int i = 0; i < testCount; i++) {
+            String key = in.readUTF();
+            long size = in.readLong();
+            long mtime = in.readLong();
+            TestFileInfo info = null;
+            if (in.readBoolean()) {
+                String pkg = in.readUTF();
+                List<String> types = readStrings(in, pool);
+                int methodCount = in.readInt();
+                List<TestMethodInfo> methods = new ArrayList<>(methodCount);
+                for (int m = 0; m < methodCount; m++) {
+                    methods.add(new TestMethodInfo(in.readUTF(), readStrings(in, pool)));
+                }
+                info = new TestFileInfo(pkg, types, List.copyOf(methods));
+            }
+            tests.put(key, new TestEntry(size, mtime, info));
+        }
+
+        int sourceCount = in.readInt();
+        for (int i = 0; i < sourceCount; i++) {
+            String key = in.readUTF();
+            long size = in.readLong();
+            long mtime = in.readLong();
+            sources.put(key, new SourceEntry(size, mtime, Set.copyOf(readStrings(in, pool))));
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String v : values) {
+            out.writeUTF(v);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in, Map<String, String> pool) throws IOException {
+        int n = in.readInt();
+        String[] values = new String[n];
+        for (int i = 0; i < n; i++) {
+            String v = in.readUTF();
+            values[i] = pool.computeIfAbsent(v, Function.identity());
+        }
+        return List.of(values);
+    }
+
+    private static String hash(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record FileStamp(String key, long size, long mtime) {
+    }
+
+    private record TestEntry(long size, long mtime, TestFileInfo info) {
+    }
+
+    private record SourceEntry(long size, long mtime, Set<String> methods) {
+    }
+}
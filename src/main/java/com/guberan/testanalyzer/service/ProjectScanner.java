@@ -1,20 +1,38 @@
 package com.guberan.testanalyzer.service;
 
 import com.guberan.testanalyzer.util.StringUtil;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Slf4j
 public class ProjectScanner {
 
+    // directories we never want to scan
+    static final Set<String> EXCLUDED_DIRS = Set.of(".git", "target", "build", "node_modules", ".gradle", ".idea");
+
+    // files that make their directory a Maven/Gradle module
+    static final Set<String> BUILD_FILES = Set.of("pom.xml", "build.gradle", "build.gradle.kts");
+
+    /**
+     * Number of threads listing directories concurrently ({@code 1} = a single worker).
+     */
+    @Setter
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     /**
      * Recursively scans a project directory while skipping irrelevant folders
      * such as .git, build outputs, node_modules, etc.
@@ -23,63 +41,167 @@ public class ProjectScanner {
      *   <li>Total number of regular files</li>
      *   <li>Number of files per extension (case-insensitive)</li>
      *   <li>List of all {@code .java} source files</li>
+     *   <li>A {@link FileIndex} of the {@code .java} files, for incremental re-analysis</li>
+     *   <li>The directories holding a build file ({@code pom.xml}, {@code build.gradle[.kts]})</li>
      * </ul>
      * <p>
+     * Sibling directories are listed concurrently on a fork/join pool (each directory is a
+     * task that forks its subdirectories); {@code javaFiles} are still returned in the
+     * order a sequential {@link Files#walkFileTree} would visit them.
      *
      * @param root the project root directory to scan
      * @return a {@link ScanResult} containing aggregated statistics
      * @throws RuntimeException if an I/O error occurs while walking the file tree
      */
     public ScanResult scan(Path root) {
+        return scan(root, file -> {
+        });
+    }
 
-        Map<String, Long> extensionCounts = new HashMap<>();
-        List<Path> javaFiles = new ArrayList<>();
-        AtomicLong totalFiles = new AtomicLong();
+    /**
+     * Same as {@link #scan(Path)}, but also hands every {@code .java} file to {@code onJavaFile}
+     * as soon as it is discovered, so that downstream work can start before the walk finishes.
+     * The callback is invoked concurrently from the walker threads, in no particular order;
+     * blocking in it slows the walk down (backpressure).
+     *
+     * @param root       the project root directory to scan
+     * @param onJavaFile thread-safe consumer of discovered {@code .java} files
+     * @return a {@link ScanResult} containing aggregated statistics
+     * @throws RuntimeException if an I/O error occurs while walking the file tree
+     */
+    public ScanResult scan(Path root, Consumer<Path> onJavaFile) {
 
-        // directories we never want to scan
-        Set<String> excludedDirs = Set.of(".git", "target", "build", "node_modules", ".gradle", ".idea");
+        Map<String, LongAdder> extensionCounts = new ConcurrentHashMap<>();
+        Map<Path, FileIndex.Stamp> javaStamps = new ConcurrentHashMap<>();
+        Set<Path> moduleDirs = ConcurrentHashMap.newKeySet();
+        LongAdder totalFiles = new LongAdder();
+        Counters counters = new Counters(extensionCounts, javaStamps, moduleDirs, totalFiles, onJavaFile);
 
+        List<Path> javaFiles;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
         try {
-            Files.walkFileTree(root, new SimpleFileVisitor<>() {
-
-                @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-                    String name = dir.getFileName().toString();
+            javaFiles = pool.invoke(new VisitTask(root, null, counters));
+        } catch (UncheckedIOException e) {
+            // fork/join may re-wrap exceptions thrown by other workers: report the I/O error itself
+            Throwable cause = e;
+            while (cause instanceof UncheckedIOException && cause.getCause() != null) cause = cause.getCause();
+            throw new RuntimeException("Scanning failed: " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdown();
+        }
 
-                    if (excludedDirs.contains(name)) {
-                        return FileVisitResult.SKIP_SUBTREE; // 🚀 big win
-                    }
-                    return FileVisitResult.CONTINUE;
-                }
+        Map<String, Long> extensionTotals = new HashMap<>();
+        extensionCounts.forEach((ext, count) -> extensionTotals.put(ext, count.sum()));
 
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        long total = totalFiles.sum();
+        log.info("Scanned {} files", total);
 
-                    if (!attrs.isRegularFile()) {
-                        return FileVisitResult.CONTINUE;
-                    }
+        return new ScanResult(total, extensionTotals, javaFiles, new FileIndex(new HashMap<>(javaStamps)), Set.copyOf(moduleDirs));
+    }
 
-                    totalFiles.incrementAndGet();
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-                    String ext = StringUtil.extensionOf(file.getFileName().toString());
-                    extensionCounts.merge(ext, 1L, Long::sum);
+    /**
+     * Shared, thread-safe accumulators of one scan.
+     */
+    private record Counters(Map<String, LongAdder> extensionCounts,
+                            Map<Path, FileIndex.Stamp> javaStamps,
+                            Set<Path> moduleDirs,
+                            LongAdder totalFiles,
+                            Consumer<Path> onJavaFile) {
+
+        /**
+         * @return {@code true} if {@code file} is a {@code .java} file
+         */
+        boolean acceptFile(Path file, BasicFileAttributes attrs) {
+            totalFiles.increment();
+
+            String name = file.getFileName().toString();
+            if (BUILD_FILES.contains(name)) moduleDirs.add(file.getParent());
+
+            String ext = StringUtil.extensionOf(name);
+            extensionCounts.computeIfAbsent(ext, e -> new LongAdder()).increment();
+
+            if ("java".equals(ext)) {
+                javaStamps.put(file, new FileIndex.Stamp(attrs.size(), attrs.lastModifiedTime().toMillis()));
+                onJavaFile.accept(file);
+                return true;
+            }
+            return false;
+        }
+    }
 
-                    if ("java".equals(ext)) {
-                        javaFiles.add(file);
-                    }
+    /**
+     * Visits one path (symbolic links are not followed, like {@link Files#walkFileTree}).
+     * A directory forks one task per subdirectory and returns its {@code .java} files in
+     * listing order, with each subdirectory's files spliced in at the subdirectory's position.
+     */
+    private static final class VisitTask extends RecursiveTask<List<Path>> {
 
-                    return FileVisitResult.CONTINUE;
-                }
-            });
+        private final Path path;
+        private final BasicFileAttributes attrs; // null = not read yet (root)
+        private final Counters counters;
 
-        } catch (IOException e) {
-            throw new RuntimeException("Scanning failed: " + e.getMessage(), e);
+        VisitTask(Path path, BasicFileAttributes attrs, Counters counters) {
+            this.path = path;
+            this.attrs = attrs;
+            this.counters = counters;
         }
 
-        long total = totalFiles.get();
-        log.info("Scanned {} files", total);
+        @Override
+        protected List<Path> compute() {
+            BasicFileAttributes a = attrs != null ? attrs : readAttributes(path);
 
-        return new ScanResult(total, extensionCounts, javaFiles);
+            if (!a.isDirectory()) {
+                if (a.isRegularFile() && counters.acceptFile(path, a)) {
+                    return List.of(path);
+                }
+                return List.of();
+            }
+
+            Path name = path.getFileName();
+            if (name != null && EXCLUDED_DIRS.contains(name.toString())) {
+                return List.of(); // 🚀 big win
+            }
+
+            // entries in listing order: a java file, or a forked subdirectory
+            AnalyzerEvents.DirectoryScanned event = new AnalyzerEvents.DirectoryScanned();
+            event.begin();
+            List<Object> entries = new ArrayList<>();
+            int listed = 0;
+            int javaFiles = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    listed++;
+                    BasicFileAttributes childAttrs = readAttributes(child);
+                    if (childAttrs.isDirectory()) {
+                        entries.add(new VisitTask(child, childAttrs, counters).fork());
+                    } else if (childAttrs.isRegularFile() && counters.acceptFile(child, childAttrs)) {
+                        entries.add(child);
+                        javaFiles++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            event.finish(path, listed, javaFiles);
+
+            List<Path> result = new ArrayList<>();
+            for (Object entry : entries) {
+                if (entry instanceof VisitTask task) {
+                    result.addAll(task.join());
+                } else {
+                    result.add((Path) entry);
+                }
+            }
+            return result;
+        }
     }
 
 
@@ -89,7 +211,10 @@ public class ProjectScanner {
      * @param totalFiles      total number of regular files discovered
      * @param extensionCounts mapping of file extension -> count
      * @param javaFiles       list of all detected .java files
+     * @param javaIndex       size/mtime snapshot of {@code javaFiles}
+     * @param moduleDirs      directories holding a Maven or Gradle build file
      */
-    public record ScanResult(long totalFiles, Map<String, Long> extensionCounts, List<Path> javaFiles) {
+    public record ScanResult(long totalFiles, Map<String, Long> extensionCounts, List<Path> javaFiles, FileIndex javaIndex,
+                             Set<Path> moduleDirs) {
     }
-}
\ No newline at end of file
+}
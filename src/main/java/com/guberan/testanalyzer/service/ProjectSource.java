@@ -0,0 +1,68 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.service.ProjectScanner.ScanResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Where the files of an analyzed project come from: a directory on disk, or a commit of a
+ * Git repository ({@link GitTreeSource}).
+ * <p>
+ * Files are always named by a {@link Path} under {@link #root()}, so the classifier and the
+ * path heuristics work the same on every source; only {@link #onDisk() disk} paths can be
+ * read with {@link Files}.
+ */
+public interface ProjectSource {
+
+    Path root();
+
+    /**
+     * Lists the project like {@link ProjectScanner#scan(Path, Consumer)}, handing every {@code .java}
+     * file to {@code onJavaFile} as soon as it is found (possibly from several threads).
+     */
+    ScanResult scan(Consumer<Path> onJavaFile);
+
+    /**
+     * @return the raw content of {@code file}, UTF-8 encoded
+     */
+    byte[] read(Path file) throws IOException;
+
+    /**
+     * @return {@code true} if the files exist on disk, so their stamps can be used by the
+     * {@link ParseCache}
+     */
+    boolean onDisk();
+
+    /**
+     * @return {@code true} if the stamps of {@link #scan} change whenever a file does, so an
+     * incremental run can diff two scans of the same {@link #root()}
+     */
+    default boolean stamped() {
+        return onDisk();
+    }
+
+    static ProjectSource directory(Path root, ProjectScanner scanner) {
+        return new Directory(root, scanner);
+    }
+
+    record Directory(Path root, ProjectScanner scanner) implements ProjectSource {
+
+        @Override
+        public ScanResult scan(Consumer<Path> onJavaFile) {
+            return scanner.scan(root, onJavaFile);
+        }
+
+        @Override
+        public byte[] read(Path file) throws IOException {
+            return Files.readAllBytes(file);
+        }
+
+        @Override
+        public boolean onDisk() {
+            return true;
+        }
+    }
+}
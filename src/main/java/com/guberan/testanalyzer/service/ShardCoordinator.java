@@ -0,0 +1,161 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.App;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Extracts test files in worker processes, for projects whose analysis does not fit in the heap
+ * of one JVM: the test files are cut into batches of {@link #BATCH_SIZE}, each handed to the next
+ * idle {@link ShardWorker}, which sends back the state of the models it filled. Results are
+ * merged in batch order as soon as the batches before them are, so the reports are the same as
+ * an in-process run and the coordinator only holds the merged models plus early results.
+ * <p>
+ * Workers are started with a command speaking the {@link ShardWorker} protocol on its standard
+ * input and output: by default this JVM's {@code java} and class path, but e.g.
+ * {@code ssh host java -jar test-convention-analyzer.jar --worker} runs one on another host.
+ */
+@Slf4j
+final class ShardCoordinator {
+
+    /**
+     * Number of test files sent to a worker at once.
+     */
+    static final int BATCH_SIZE = 256;
+
+    private ShardCoordinator() {
+    }
+
+    /**
+     * @return the command starting a worker with the {@code java} and class path of this JVM
+     */
+    static List<String> defaultCommand() {
+        String java = ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        return List.of(java, "-cp", System.getProperty("java.class.path"), App.class.getName(), "--worker");
+    }
+
+    /**
+     * Analyzes the files of {@code shards} in (at most) {@code processes} workers started with
+     * {@code command}, and merges the results into each shard's models.
+     *
+     * @param metrics  receives the counters measured by the workers
+     * @param progress receives the number of test files analyzed so far
+     */
+    static void analyze(List<String> command, int processes, ShardWorker.Header header, List<TestAnalyzer.Shard> shards,
+                        AnalysisMetrics metrics, IntConsumer progress) {
+        List<Batch> batches = new ArrayList<>();
+        for (TestAnalyzer.Shard shard : shards) {
+            List<Path> files = shard.files();
+            for (int from = 0; from < files.size(); from += BATCH_SIZE) {
+                batches.add(new Batch(files.subList(from, Math.min(from + BATCH_SIZE, files.size())), shard.into()));
+            }
+        }
+        int workers = Math.min(processes, batches.size());
+        if (workers == 0) return;
+        log.info("Analyzing {} batches of test files in {} worker processes", batches.size(), workers);
+
+        Results results = new Results(batches, progress);
+        AtomicInteger next = new AtomicInteger();
+        List<Process> started = new ArrayList<>();
+        ExecutorService drivers = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Process process = start(command);
+                started.add(process);
+                sessions.add(drivers.submit(() -> {
+                    drive(process, header, batches, next, results, metrics);
+                    return null;
+                }));
+            }
+            for (Future<?> session : sessions) session.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            drivers.shutdownNow();
+            started.forEach(Process::destroy);
+        }
+    }
+
+    private static Process start(List<String> command) {
+        try {
+            return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start worker " + command + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Feeds one worker with the next batches until there are none left.
+     */
+    private static void drive(Process process, ShardWorker.Header header, List<Batch> batches, AtomicInteger next,
+                              Results results, AnalysisMetrics metrics) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        try {
+            header.write(out);
+            out.flush();
+            if (in.readInt() != ShardWorker.MAGIC) throw new IOException("not a test analyzer worker");
+
+            for (int b; (b = next.getAndIncrement()) < batches.size(); ) {
+                Batch batch = batches.get(b);
+                ShardWorker.writePaths(out, batch.files());
+                out.flush();
+                if (!in.readBoolean()) throw new IOException("batch failed: " + in.readUTF());
+                TestAnalyzer.Models models = batch.into().read(in);
+                metrics.addCounters(in);
+                results.complete(b, models);
+            }
+            out.writeInt(-1);
+            out.flush();
+        } catch (IOException e) {
+            String reason = process.isAlive() ? e.getMessage() : "exited with code " + process.exitValue();
+            throw new IOException("worker " + process.pid() + ": " + reason, e);
+        }
+    }
+
+    /**
+     * Test files sent to a worker at once, and the models their result is merged into.
+     */
+    private record Batch(List<Path> files, TestAnalyzer.Models into) {
+    }
+
+    /**
+     * Merges the results of the batches in batch order, whatever order they complete in.
+     */
+    private static final class Results {
+
+        private final List<Batch> batches;
+        private final TestAnalyzer.Models[] pending;
+        private final IntConsumer progress;
+        private int merged;
+        private int filesDone;
+
+        Results(List<Batch> batches, IntConsumer progress) {
+            this.batches = batches;
+            this.pending = new TestAnalyzer.Models[batches.size()];
+            this.progress = progress;
+        }
+
+        synchronized void complete(int batch, TestAnalyzer.Models models) {
+            pending[batch] = models;
+            filesDone += batches.get(batch).files().size();
+            while (merged < pending.length && pending[merged] != null) {
+                batches.get(merged).into().merge(pending[merged]);
+                pending[merged++] = null;
+            }
+            progress.accept(filesDone);
+        }
+    }
+}
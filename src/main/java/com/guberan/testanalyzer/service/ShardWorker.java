@@ -0,0 +1,117 @@
+package com.guberan.testanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker process of a {@link ShardCoordinator} ({@code --worker}): extracts the batches of test
+ * files it is sent and answers with the state of the models it filled, over its standard input
+ * and output (logs go to the standard error).
+ * <p>
+ * Protocol, in {@link DataOutput} format:
+ * <pre>
+ *   coordinator: MAGIC VERSION root engine parallelism sourceFileCount sourceFile...
+ *   worker:      MAGIC
+ *   coordinator: fileCount testFile...          (repeated; fileCount -1 ends the session)
+ *   worker:      true models counters           (or false message, if the batch failed)
+ * </pre>
+ * Files are named by their absolute paths, which the worker reads itself: a worker on another
+ * host needs the project at the same path.
+ */
+@Slf4j
+public final class ShardWorker {
+
+    static final int MAGIC = 0x54434157; // "TCAW"
+    static final int VERSION = 1;
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Serves one coordinator on the standard input and output.
+     *
+     * @return the process exit code: {@code 0} once the coordinator is done, {@code 1} on a protocol error
+     */
+    public static int run() {
+        OutputStream stdout = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err); // keep the protocol stream clean of logs
+        try {
+            serve(new DataInputStream(new BufferedInputStream(System.in)),
+                    new DataOutputStream(new BufferedOutputStream(stdout)));
+            return 0;
+        } catch (EOFException e) {
+            log.info("Coordinator went away");
+            return 0;
+        } catch (IOException e) {
+            log.error("Worker failed: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        Header header = Header.read(in);
+        TestAnalyzer analyzer = new TestAnalyzer();
+        analyzer.setEngine(header.engine());
+        analyzer.setParallelism(header.parallelism());
+        analyzer.startShards(ProjectSource.directory(header.root(), new ProjectScanner()), header.sourceFiles());
+        out.writeInt(MAGIC);
+        out.flush();
+
+        for (int n; (n = in.readInt()) >= 0; ) {
+            List<Path> testFiles = readPaths(in, n);
+            try {
+                TestAnalyzer.Models models = analyzer.analyzeShard(testFiles);
+                out.writeBoolean(true);
+                models.write(out);
+                analyzer.getMetrics().writeCounters(out);
+            } catch (RuntimeException e) {
+                log.error("Batch of {} test files failed", testFiles.size(), e);
+                out.writeBoolean(false);
+                out.writeUTF(String.valueOf(e.getMessage()));
+            }
+            out.flush();
+        }
+    }
+
+    static void writePaths(DataOutput out, List<Path> paths) throws IOException {
+        out.writeInt(paths.size());
+        for (Path path : paths) out.writeUTF(path.toString());
+    }
+
+    private static List<Path> readPaths(DataInput in, int n) throws IOException {
+        List<Path> paths = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) paths.add(Path.of(in.readUTF()));
+        return paths;
+    }
+
+    /**
+     * What a worker needs to know about the analysis before its first batch.
+     *
+     * @param sourceFiles production {@code .java} files of the project, to match test classes with
+     */
+    record Header(Path root, TestAnalyzer.ExtractionEngine engine, int parallelism, List<Path> sourceFiles) {
+
+        void write(DataOutput out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(root.toString());
+            out.writeUTF(engine.name());
+            out.writeInt(parallelism);
+            writePaths(out, sourceFiles);
+        }
+
+        static Header read(DataInput in) throws IOException {
+            if (in.readInt() != MAGIC) throw new IOException("not a test analyzer coordinator");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported protocol version " + version);
+            Path root = Path.of(in.readUTF());
+            TestAnalyzer.ExtractionEngine engine = TestAnalyzer.ExtractionEngine.valueOf(in.readUTF());
+            int parallelism = in.readInt();
+            return new Header(root, engine, parallelism, readPaths(in, in.readInt()));
+        }
+    }
+}
@@ -1,33 +1,173 @@
 package com.guberan.testanalyzer.service;
 
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.guberan.testanalyzer.gui.RunPanel;
 import com.guberan.testanalyzer.model.*;
 import com.guberan.testanalyzer.service.ProjectScanner.ScanResult;
-import com.guberan.testanalyzer.util.NamingUtil;
+import com.guberan.testanalyzer.util.MethodNameTokens;
 import com.guberan.testanalyzer.util.PathUtil;
+import com.guberan.testanalyzer.util.TopK;
+import com.guberan.testanalyzer.util.Vocabulary;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class TestAnalyzer {
 
+    /**
+     * Number of test files handed to a worker at once in parallel mode.
+     */
+    private static final int CHUNK_SIZE = 32;
+
+    /**
+     * Maximum number of test files queued for extraction while the scan is still running.
+     */
+    private static final int PREFETCH_WINDOW = 256;
+
+    /**
+     * Module of the test files that are not inside any module directory.
+     */
+    static final String ROOT_MODULE = ".";
+
     private final ProjectScanner scanner = new ProjectScanner();
     private final JavaTestClassifier classifier = new JavaTestClassifier();
     private final JavaAstService ast = new JavaAstService();
-    private final TokenModel tokenModel = new TokenModel();
-    private final NamingModel namingModel = new NamingModel();
-    private final PhrasePatternModel patternModel = new PhrasePatternModel(false);
-
+    private final TestFileScanner testScanner = new TestFileScanner();
+    private Models models = Models.create();
+
+    /**
+     * Number of worker threads used to parse test files ({@code 1} = sequential, on the caller thread).
+     */
+    @Setter
+    private int parallelism = 1;
+
+    /**
+     * How test files are turned into {@link TestFileInfo} facts.
+     */
+    @Setter
+    private ExtractionEngine engine = ExtractionEngine.AST;
+
+    /**
+     * Directory of the persistent {@link ParseCache}; {@code null} disables it.
+     */
+    @Setter
+    private Path cacheDir;
+
+    /**
+     * When set, the analyzer remembers what each test file contributed, and a later
+     * {@link #analyze} of the same root only re-processes the files that changed since
+     * (retracting their previous contributions from the models).
+     */
+    @Setter
+    private boolean incremental;
+
+    /**
+     * When set, each Maven/Gradle module (a directory holding a {@code pom.xml} or
+     * {@code build.gradle[.kts]}) is a shard with models of its own, filled in parallel: the
+     * analysis gets one {@linkplain ProjectAnalysis#getModules() analysis per module} and a
+     * {@link ProjectAnalysis.ReportId#MODULES MODULES} report, and its project-wide reports
+     * merge the modules in path order. Test files outside any module belong to the root ({@code "."}).
+     */
+    @Setter
+    private boolean modules;
+
+    /**
+     * Number of worker processes extracting the test files ({@code 0} = in this JVM); workers
+     * started with the default {@link #workerCommand} share the {@link #parallelism} threads
+     * between them, others each get them all. See {@link ShardCoordinator}. Only used for sources
+     * {@linkplain ProjectSource#onDisk() on disk}, and never incrementally.
+     */
+    @Setter
+    private int workerProcesses;
+
+    /**
+     * Command starting a {@link ShardWorker}; by default this JVM's {@code java} and class path.
+     */
+    @Setter
+    private List<String> workerCommand = ShardCoordinator.defaultCommand();
+
+    private ParseCache parseCache = ParseCache.disabled();
+
+    // cache parsed source method sets (shared by all workers; kept between incremental runs)
+    private final Map<Path, Set<String>> sourceMethodsCache = new ConcurrentHashMap<>();
+
+    // incremental state: snapshot and per-file contributions of the previous run
+    private Path previousRoot;
+    private FileIndex previousIndex = FileIndex.EMPTY;
+    private final Map<Path, Contribution> contributions = new ConcurrentHashMap<>();
+
+    // module mode: the models of each module, by module path (models is rebuilt as their merge)
+    private final Map<String, Models> moduleModels = new TreeMap<>();
+    private Set<Path> moduleDirs; // null = not sharded
+
+    // worker process: production classes of the coordinator's project
+    private Map<String, Path> shardSourceIndex = Map.of();
+
+    /**
+     * When set, the {@link AnalysisMetrics} of each run are written there (Prometheus text format).
+     */
+    @Setter
+    private Path metricsFile;
+
+    private AnalysisMetrics metrics = new AnalysisMetrics();
+
+    private ProjectSource source;
 
     public ProjectAnalysis analyze(Path projectRoot, Consumer<RunPanel.ProgressInfo> progress) {
+        return analyze(ProjectSource.directory(projectRoot, scanner), progress);
+    }
+
+    /**
+     * Analyzes the project files provided by {@code source}. The {@link ParseCache} only applies
+     * to sources {@link ProjectSource#onDisk() on disk}, incremental runs to
+     * {@link ProjectSource#stamped() stamped} ones.
+     */
+    public ProjectAnalysis analyze(ProjectSource source, Consumer<RunPanel.ProgressInfo> progress) {
+        this.source = source;
+        Path projectRoot = source.root();
+        parseCache = cacheDir == null || !source.onDisk() ? ParseCache.disabled() : ParseCache.open(cacheDir, projectRoot, engine);
+        boolean remote = workerProcesses > 0 && source.onDisk();
+        if (workerProcesses > 0 && !remote) log.warn("{} is not on disk: analyzing it in this JVM", projectRoot);
+        boolean reuse = incremental && !remote && source.stamped() && projectRoot.equals(previousRoot);
+        previousRoot = null; // a failed run leaves the models inconsistent: next run starts over
+
+        // a full run starts extracting test files while the tree is still being walked
+        ExecutorService workers = parallelism > 1 && !remote ? Executors.newFixedThreadPool(parallelism, workerThreadFactory()) : null;
+        try {
+            return analyze(projectRoot, reuse, remote, workers, progress);
+        } finally {
+            if (workers != null) workers.shutdownNow();
+        }
+    }
+
+    private ProjectAnalysis analyze(Path projectRoot, boolean reuse, boolean remote, ExecutorService workers,
+                                    Consumer<RunPanel.ProgressInfo> progress) {
+        metrics = new AnalysisMetrics();
+        metrics.startPhase();
+
         progress.accept(new RunPanel.ProgressInfo("Scanning files…", 0, 0));
-        ScanResult scan = scanner.scan(projectRoot);
+        Prefetch prefetch = workers == null || reuse ? null : new Prefetch(workers);
+        ScanResult scan = source.scan(prefetch == null ? file -> {
+        } : prefetch::offer);
+        metrics.endPhase(Phase.SCAN);
+
+        // modules added or removed: files may have moved from one shard to another
+        Set<Path> currentModuleDirs = modules ? scan.moduleDirs() : null;
+        reuse &= Objects.equals(currentModuleDirs, moduleDirs);
+        moduleDirs = currentModuleDirs;
 
         // classify java
         int totalJavaFiles = scan.javaFiles().size();
@@ -37,34 +177,214 @@ public class TestAnalyzer {
 
         List<Path> javaTestFiles = parts.get(true);
         List<Path> javaSourceFiles = parts.get(false);
+        metrics.endPhase(Phase.CLASSIFY);
 
         // build quick index for source files by “class” path heuristic
         progress.accept(new RunPanel.ProgressInfo("Indexing source classes…", 0, 0));
         Map<String, Path> sourceByFqn = buildSourceIndex(projectRoot, javaSourceFiles);
+        metrics.endPhase(Phase.INDEX);
 
         // analyze tests
         progress.accept(new RunPanel.ProgressInfo("Analyzing test methods…", 0, 0));
-        PatternStats patternStats = analyzeTestFiles(projectRoot, javaTestFiles, sourceByFqn, progress);
+        List<Path> testFilesToAnalyze;
+        if (reuse) {
+            FileIndex.Changes changes = scan.javaIndex().diff(previousIndex);
+            testFilesToAnalyze = retractChanges(changes, javaTestFiles, sourceByFqn);
+            log.info("Incremental run: {} changed .java files, {} test files to re-analyze", changes.size(), testFilesToAnalyze.size());
+        } else {
+            resetModels();
+            testFilesToAnalyze = javaTestFiles;
+        }
+        if (remote) {
+            analyzeInWorkers(shards(testFilesToAnalyze), javaSourceFiles, progress);
+        } else {
+            analyzeTestFiles(shards(testFilesToAnalyze), sourceByFqn, workers, prefetch, progress);
+        }
+        if (modules) mergeModules(javaTestFiles);
+        previousRoot = remote ? null : projectRoot; // workers keep no contributions to retract
+        previousIndex = scan.javaIndex();
+        metrics.endPhase(Phase.PARSE);
 
         // infer convention
         progress.accept(new RunPanel.ProgressInfo("Inferring convention…", 0, 0));
         //ConventionSummary convention = new ConventionInferer().infer(testNaming);
+        metrics.endPhase(Phase.INFER);
 
         // assemble
         ProjectAnalysis projectAnalysis = new ProjectAnalysis();
         projectAnalysis.setProjectRoot(projectRoot.toString());
 
-        createSourceVsTestReport(projectAnalysis, scan, javaSourceFiles.size(), javaTestFiles.size());
-        createExtensionReport(projectAnalysis, scan);
+        createReport(ProjectAnalysis.ReportId.SRC_VS_TEST,
+                () -> createSourceVsTestReport(projectAnalysis, scan, javaSourceFiles.size(), javaTestFiles.size()));
+        createReport(ProjectAnalysis.ReportId.FILE_TYPES, () -> createExtensionReport(projectAnalysis, scan));
 
         // reporting
-        tokenModel.createTokenReport(projectAnalysis);
-        namingModel.createNamingReport(projectAnalysis);
-        patternModel.createPatternReport(projectAnalysis);
-
+        createReport(ProjectAnalysis.ReportId.TOKENS, () -> models.tokenModel().createReport(projectAnalysis));
+        createReport(ProjectAnalysis.ReportId.TEST_METHOD_NAMING, () -> models.namingModel().createReport(projectAnalysis));
+        createReport(ProjectAnalysis.ReportId.PATTERNS, () -> models.patternModel().createReport(projectAnalysis));
+        if (modules) createReport(ProjectAnalysis.ReportId.MODULES, () -> createModuleReports(projectAnalysis));
+
+        parseCache.save(scan.javaFiles());
+        metrics.endPhase(Phase.REPORT);
+        metrics.createMetricsReport(projectAnalysis);
+        log.info("Analysis metrics: {}", metrics.asMap());
+        exportMetrics();
         return projectAnalysis;
     }
 
+    /**
+     * @return how long each phase of the last {@link #analyze} took
+     */
+    public Map<Phase, Duration> getPhaseTimings() {
+        return metrics.wallTimes();
+    }
+
+    /**
+     * @return the measurements of the last {@link #analyze}
+     */
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return an exporter of {@code analysis}, the result of the last {@link #analyze}, exporting the
+     * full token and pattern tables of the models rather than the top items of their reports
+     * (valid until the next analysis)
+     */
+    public ReportExporter exporter(ProjectAnalysis analysis) {
+        ReportExporter exporter = withFullTables(new ReportExporter(analysis), models);
+        moduleModels.forEach((module, m) -> {
+            ReportExporter moduleExporter = exporter.module(module);
+            if (moduleExporter != null) withFullTables(moduleExporter, m);
+        });
+        return exporter;
+    }
+
+    private static ReportExporter withFullTables(ReportExporter exporter, Models models) {
+        return exporter
+                .withFullTable(ProjectAnalysis.ReportId.TOKENS, models.tokenModel()::forEachRecord)
+                .withFullTable(ProjectAnalysis.ReportId.PATTERNS, models.patternModel()::forEachRecord);
+    }
+
+    private void exportMetrics() {
+        if (metricsFile == null) return;
+        try {
+            Files.writeString(metricsFile, metrics.toPrometheus());
+        } catch (IOException e) {
+            log.warn("Could not write metrics to {}: {}", metricsFile, e.getMessage());
+        }
+    }
+
+    private void resetModels() {
+        models = Models.create();
+        moduleModels.clear();
+        sourceMethodsCache.clear();
+        contributions.clear();
+    }
+
+    /**
+     * Retracts the contributions that are no longer valid and returns the test files to
+     * (re-)analyze, in scan order: added and modified test files, plus unchanged test files
+     * whose production class was added, modified or deleted.
+     */
+    private List<Path> retractChanges(FileIndex.Changes changes, List<Path> testFiles, Map<String, Path> sourceByFqn) {
+        for (Path p : changes.modified()) sourceMethodsCache.remove(p);
+        for (Path p : changes.deleted()) sourceMethodsCache.remove(p);
+
+        List<Path> dirty = new ArrayList<>();
+        for (Path testFile : testFiles) {
+            Contribution previous = contributions.get(testFile);
+            if (previous == null) {
+                dirty.add(testFile);
+                continue;
+            }
+            Path currentSource = previous.info() == null ? null : sourceByFqn.get(previous.info().sourceClassFqn());
+            boolean stale = changes.modified().contains(testFile)
+                    || !Objects.equals(previous.sourceFile(), currentSource)
+                    || changes.modified().contains(currentSource);
+            if (stale) {
+                retract(testFile, contributions.remove(testFile));
+                dirty.add(testFile);
+            }
+        }
+        for (Path deleted : changes.deleted()) {
+            Contribution previous = contributions.remove(deleted);
+            if (previous != null) retract(deleted, previous);
+        }
+        return dirty;
+    }
+
+    private void retract(Path testFile, Contribution contribution) {
+        if (contribution.info() == null) return;
+        Models from = moduleDirs == null ? models : moduleModels.get(moduleOf(testFile));
+        String testClass = contribution.info().primaryTestClass();
+        for (TestMethodInfo m : contribution.info().testMethods()) {
+            from.retractMethod(m, testClass, contribution.sourceMethods());
+        }
+    }
+
+    /**
+     * @return the files to analyze, in scan order, with the models they feed: one shard, or one per module
+     */
+    private List<Shard> shards(List<Path> testFiles) {
+        if (moduleDirs == null) return List.of(new Shard(testFiles, models));
+
+        Map<String, List<Path>> filesByModule = new TreeMap<>();
+        for (Path testFile : testFiles) {
+            filesByModule.computeIfAbsent(moduleOf(testFile), m -> new ArrayList<>()).add(testFile);
+        }
+        List<Shard> shards = new ArrayList<>();
+        filesByModule.forEach((module, files) ->
+                shards.add(new Shard(files, moduleModels.computeIfAbsent(module, m -> Models.create()))));
+        return shards;
+    }
+
+    /**
+     * Drops the modules left without test files and rebuilds the project-wide models as the
+     * merge of the others, in module path order.
+     */
+    private void mergeModules(List<Path> testFiles) {
+        Set<String> present = new HashSet<>();
+        for (Path testFile : testFiles) present.add(moduleOf(testFile));
+        moduleModels.keySet().retainAll(present);
+
+        models = Models.create();
+        moduleModels.values().forEach(models::merge);
+    }
+
+    /**
+     * @return the path, relative to the root, of the innermost module holding {@code file}, or {@code "."}
+     */
+    private String moduleOf(Path file) {
+        Path root = source.root();
+        for (Path dir = file.getParent(); dir != null && dir.startsWith(root) && !dir.equals(root); dir = dir.getParent()) {
+            if (moduleDirs.contains(dir)) return root.relativize(dir).toString().replace('\\', '/');
+        }
+        return ROOT_MODULE;
+    }
+
+    void createModuleReports(ProjectAnalysis projectAnalysis) {
+        List<ProjectAnalysis.MetricRecord> testMethods = new ArrayList<>();
+        moduleModels.forEach((module, m) -> {
+            ProjectAnalysis moduleAnalysis = new ProjectAnalysis();
+            moduleAnalysis.setProjectRoot(source.root().resolve(module).normalize().toString());
+            m.tokenModel().createReport(moduleAnalysis);
+            m.namingModel().createReport(moduleAnalysis);
+            m.patternModel().createReport(moduleAnalysis);
+            projectAnalysis.getModules().put(module, moduleAnalysis);
+            testMethods.add(ProjectAnalysis.MetricRecord.of(module, m.namingModel().getTotalTestMethods()));
+        });
+
+        projectAnalysis.addReport(new ProjectAnalysis.MetricsReport(
+                ProjectAnalysis.ReportId.MODULES,
+                "Modules",
+                "Test methods per Maven/Gradle module (each module has its own token, naming and pattern reports).",
+                "",
+                0,
+                testMethods)
+                .computeRatios());
+    }
+
     private Map<String, Path> buildSourceIndex(Path root, List<Path> sourceFiles) {
         Map<String, Path> map = new HashMap<>();
         for (Path p : sourceFiles) {
@@ -78,8 +398,8 @@ public class TestAnalyzer {
         // Top extensions
         List<ProjectAnalysis.MetricRecord> topFileTypes = scan.extensionCounts()
                 .entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
+                .collect(TopK.collector(10, (a, b) -> Long.compare(b.getValue(), a.getValue())))
+                .stream()
                 .map(ProjectAnalysis.MetricRecord::of)
                 .collect(Collectors.toList());
 
@@ -115,74 +435,218 @@ public class TestAnalyzer {
     }
 
 
-    private PatternStats analyzeTestFiles(Path root,
-                                          List<Path> testFiles,
-                                          Map<String, Path> sourceByFqn,
-                                          Consumer<RunPanel.ProgressInfo> progress) {
+    private void analyzeTestFiles(List<Shard> shards,
+                                  Map<String, Path> sourceByFqn,
+                                  ExecutorService workers,
+                                  Prefetch prefetch,
+                                  Consumer<RunPanel.ProgressInfo> progress) {
 
-        // cache parsed source method sets
-        Map<Path, Set<String>> sourceMethodsCache = new HashMap<>();
-        PatternStats patternStats = new PatternStats();
-        long lastProgressMs = System.currentTimeMillis();
-        final long progressIntervalMs = 100L;
+        int total = 0;
+        for (Shard shard : shards) total += shard.files().size();
 
-        for (int i = 0; i < testFiles.size(); i++) {
-            Path testFile = testFiles.get(i);
+        if (workers == null || total <= CHUNK_SIZE) {
+            long lastProgressMs = System.currentTimeMillis();
+            final long progressIntervalMs = 100L;
 
-            long now = System.currentTimeMillis();
-            if (now - lastProgressMs >= progressIntervalMs) {
-                progress.accept(new RunPanel.ProgressInfo("Parsing tests… " + i + "/" + testFiles.size(), testFiles.size(), i));
-                lastProgressMs = now;
+            int i = 0;
+            for (Shard shard : shards) {
+                for (Path testFile : shard.files()) {
+                    long now = System.currentTimeMillis();
+                    if (now - lastProgressMs >= progressIntervalMs) {
+                        progress.accept(new RunPanel.ProgressInfo("Parsing tests… " + i + "/" + total, total, i));
+                        lastProgressMs = now;
+                    }
+                    analyzeTestFile(testFile, sourceByFqn, prefetch, shard.into());
+                    i++;
+                }
             }
+            return;
+        }
 
-            Optional<CompilationUnit> cuOpt = ast.parse(testFile);
-            if (cuOpt.isEmpty()) continue;
-            CompilationUnit compilationUnit = cuOpt.get();
+        // parallel: contiguous chunks of each shard feed thread-confined partial models, which
+        // are reduced pairwise on the workers (a balanced tree per shard, keeping chunk order) as
+        // soon as both sides are done. Merges are associative, so the reports match the
+        // sequential run exactly. Chunks queue behind all prefetch tasks, so they never wait on
+        // an extraction that is not running.
+        try {
+            AtomicInteger parsed = new AtomicInteger();
+            List<CompletableFuture<Models>> chunks = new ArrayList<>();
+            List<CompletableFuture<Models>> reduced = new ArrayList<>();
+            for (Shard shard : shards) {
+                List<Path> files = shard.files();
+                int first = chunks.size();
+                for (int from = 0; from < files.size(); from += CHUNK_SIZE) {
+                    List<Path> chunk = files.subList(from, Math.min(from + CHUNK_SIZE, files.size()));
+                    chunks.add(CompletableFuture.supplyAsync(() -> {
+                        Models partial = shard.into().empty();
+                        for (Path testFile : chunk) {
+                            analyzeTestFile(testFile, sourceByFqn, prefetch, partial);
+                            parsed.incrementAndGet();
+                        }
+                        return partial;
+                    }, workers));
+                }
+                reduced.add(reduce(chunks, first, chunks.size(), workers));
+            }
 
-            String pkg = compilationUnit.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
-            Set<String> typeNames = compilationUnit.getTypes().stream().map(t -> t.getNameAsString()).collect(Collectors.toSet());
+            for (Future<Models> chunk : chunks) {
+                chunk.get();
+                int done = parsed.get();
+                progress.accept(new RunPanel.ProgressInfo("Parsing tests… " + done + "/" + total, total, done));
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                shards.get(i).into().merge(reduced.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
 
-            // determine "primary" test class name (heuristic: first type ending with Test else first)
-//            String testClass = typeNames.stream().filter(n -> n.endsWith("Test")).findFirst()
-//                    .orElse(typeNames.stream().findFirst().orElse(null));
+    private void analyzeInWorkers(List<Shard> shards, List<Path> sourceFiles, Consumer<RunPanel.ProgressInfo> progress) {
+        int total = 0;
+        for (Shard shard : shards) total += shard.files().size();
+        int files = total;
+        // workers on this machine: together, no more threads than in this JVM
+        int threads = workerCommand.equals(ShardCoordinator.defaultCommand())
+                ? Math.max(1, parallelism / workerProcesses) : parallelism;
+        ShardWorker.Header header = new ShardWorker.Header(source.root(), engine, threads, sourceFiles);
+        ShardCoordinator.analyze(workerCommand, workerProcesses, header, shards, metrics,
+                done -> progress.accept(new RunPanel.ProgressInfo("Parsing tests… " + done + "/" + files, files, done)));
+    }
 
-            String testClass = typeNames.stream()
-                    .filter(n -> NamingUtil.sourceClassNameFromTestClass(n) != null)
-                    .findFirst()
-                    .orElse(typeNames.stream().findFirst().orElse(null));
+    /**
+     * Worker side of {@link #workerProcesses}: prepares the analysis of batches of test files of
+     * {@code source}, whose production classes are {@code sourceFiles}. Workers do not use the
+     * persistent {@link ParseCache}: each would save its own share of the entries only.
+     */
+    void startShards(ProjectSource source, List<Path> sourceFiles) {
+        this.source = source;
+        parseCache = ParseCache.disabled();
+        shardSourceIndex = buildSourceIndex(source.root(), sourceFiles);
+    }
 
-            String sourceClass = NamingUtil.sourceClassNameFromTestClass(testClass);
+    /**
+     * @return new models fed with {@code testFiles}; {@link #getMetrics()} then covers this batch only
+     */
+    Models analyzeShard(List<Path> testFiles) {
+        metrics = new AnalysisMetrics();
+        Models shard = Models.create();
+        ExecutorService workers = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, workerThreadFactory()) : null;
+        try {
+            analyzeTestFiles(List.of(new Shard(testFiles, shard)), shardSourceIndex, workers, null, progress -> {
+            });
+        } finally {
+            if (workers != null) workers.shutdownNow();
+        }
+        return shard;
+    }
 
-            Path sourceFile = null;
-            if (sourceClass != null) {
-                String fqn = pkg.isBlank() ? sourceClass : (pkg + "." + sourceClass);
-                sourceFile = sourceByFqn.get(fqn);
-            }
+    /**
+     * @return the merge of {@code parts[from, to)}, in order, computed on {@code executor}
+     */
+    private static CompletableFuture<Models> reduce(List<CompletableFuture<Models>> parts, int from, int to, Executor executor) {
+        if (to - from == 1) return parts.get(from);
+        int mid = (from + to) >>> 1;
+        return reduce(parts, from, mid, executor).thenCombineAsync(reduce(parts, mid, to, executor), (left, right) -> {
+            left.merge(right);
+            return left;
+        }, executor);
+    }
 
-            Set<String> sourceMethods = Collections.emptySet();
-            if (sourceFile != null) {
-                sourceMethods = sourceMethodsCache.computeIfAbsent(sourceFile, sf -> parseMethodNames(sf));
-            }
+    private void analyzeTestFile(Path testFile, Map<String, Path> sourceByFqn, Prefetch prefetch, Models into) {
 
-            // test methods: methods with @Test-ish annotations
-            var methods = compilationUnit.findAll(MethodDeclaration.class);
+        Optional<TestFileInfo> infoOpt = prefetch == null ? loadTestFile(testFile) : prefetch.take(testFile);
+        if (infoOpt.isEmpty()) {
+            if (incremental) contributions.put(testFile, new Contribution(null, null, Set.of()));
+            return;
+        }
+        TestFileInfo info = infoOpt.get();
+
+        String testClass = info.primaryTestClass();
+        String sourceFqn = info.sourceClassFqn();
+        Path sourceFile = sourceFqn == null ? null : sourceByFqn.get(sourceFqn);
+
+        Set<String> sourceMethods = Collections.emptySet();
+        if (sourceFile != null) {
+            Set<String> cached = sourceMethodsCache.get(sourceFile);
+            metrics.sourceMethodsLookup(cached != null);
+            sourceMethods = cached != null ? cached
+                    : sourceMethodsCache.computeIfAbsent(sourceFile, sf -> parseCache.sourceMethods(sf, this::parseMethodNames));
+        }
+        if (incremental) contributions.put(testFile, new Contribution(info, sourceFile, sourceMethods));
+
+        // each name is split once for all models
+        AnalyzerEvents.MethodsIngested event = new AnalyzerEvents.MethodsIngested();
+        event.begin();
+        MethodNameTokens tokens = new MethodNameTokens();
+        for (TestMethodInfo m : info.testMethods()) {
+            tokens.split(m.name());
+            metrics.methodAccepted();
+            into.acceptMethod(m, testClass, tokens, sourceMethods);
+        }
+        event.finish(testFile, testClass, info.testMethods().size());
+    }
 
-            for (MethodDeclaration m : methods) {
-                if (!isTestMethod(m)) continue;
+    private static void createReport(ProjectAnalysis.ReportId id, Runnable create) {
+        AnalyzerEvents.ReportCreated event = new AnalyzerEvents.ReportCreated();
+        event.begin();
+        create.run();
+        event.finish(id.name());
+    }
 
-                String name = m.getNameAsString();
-                patternStats.accept(name);
-                tokenModel.acceptMethod(m, testClass);
-                namingModel.acceptMethod(m, testClass, sourceMethods);
-                patternModel.acceptMethod(m, testClass);
-            }
+    private Optional<TestFileInfo> loadTestFile(Path testFile) {
+        return parseCache.testFile(testFile, this::extractTestFile);
+    }
+
+    private Optional<TestFileInfo> extractTestFile(Path testFile) {
+        String content = read(testFile);
+        if (content == null) return Optional.empty();
+        if (engine == ExtractionEngine.SCANNER) {
+            Optional<TestFileInfo> scanned = testScanner.scan(testFile, content);
+            if (scanned.isPresent()) return scanned;
+            // ambiguous syntax: fall back to the full parser (on the same content)
+        }
+        Optional<TestFileInfo> parsed = ast.parseTestFile(testFile, content);
+        if (parsed.isEmpty()) metrics.parseFailure();
+        return parsed;
+    }
+
+    /**
+     * @return the content of {@code file} (malformed UTF-8 is replaced, as the parser does), or
+     * {@code null} (counted as a parse failure) if it cannot be read
+     */
+    private String read(Path file) {
+        try {
+            byte[] content = source.read(file);
+            metrics.fileRead(content.length);
+            return new String(content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("Read error in {}: {}", file, e.getMessage());
+            metrics.parseFailure();
+            return null;
         }
-        return patternStats;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "test-analyzer-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
     }
 
     private Set<String> parseMethodNames(Path sourceFile) {
-        var cuOpt = ast.parse(sourceFile);
-        if (cuOpt.isEmpty()) return Set.of();
+        String content = read(sourceFile);
+        if (content == null) return Set.of();
+        var cuOpt = ast.parse(sourceFile, content);
+        if (cuOpt.isEmpty()) {
+            metrics.parseFailure();
+            return Set.of();
+        }
         var cu = cuOpt.get();
         return cu.findAll(MethodDeclaration.class).stream()
                 .filter(m -> !m.isPrivate()) // optionnel : filtre léger
@@ -190,154 +654,303 @@ public class TestAnalyzer {
                 .collect(Collectors.toSet());
     }
 
-    private boolean isTestMethod(MethodDeclaration m) {
-        // JUnit5 + common variants.
-        return m.getAnnotations().stream().anyMatch(a -> {
-            String n = a.getNameAsString();
-            return n.equals("Test")
-                    || n.equals("ParameterizedTest")
-                    || n.equals("RepeatedTest")
-                    || n.equals("TestFactory")
-                    || n.equals("TestTemplate");
-        });
-    }
+    /* ---- */
 
-    private boolean hasDisplayAnnotation(MethodDeclaration m) {
-        return m.getAnnotations().stream().anyMatch(a -> a.getNameAsString().equals("DisplayName"));
+    /**
+     * Phases of {@link #analyze}, in execution order. In a parallel full run, test files are
+     * already being extracted during {@link #SCAN}, so {@link #PARSE} only covers what is left.
+     */
+    public enum Phase {
+        SCAN,
+        CLASSIFY,
+        INDEX,
+        PARSE,
+        INFER,
+        REPORT
     }
 
-    /* ---- */
+    public enum ExtractionEngine {
+        /**
+         * Full JavaParser AST for every test file.
+         */
+        AST,
+        /**
+         * Lightweight token scanner ({@link TestFileScanner}), falling back to the AST on ambiguous syntax.
+         */
+        SCANNER
+    }
 
-    private static class PatternStats {
-        private static final Set<String> KEYWORDS = Set.of(
-                "given", "when", "then", "if", "should",
-                "expect",
-                "throws",
-                "exception", "error",
-                "fail",
-                "return"
-        );
+    /**
+     * Extracts test files on the worker pool as the scanner discovers them. At most
+     * {@link #PREFETCH_WINDOW} extractions are queued, running or done but not yet
+     * {@linkplain #take taken}: a permit is only returned when the parse phase consumes the
+     * result. Files discovered while the window is full are extracted by the parse phase as
+     * usual, so the walk never blocks and buffered results stay bounded whatever the project size.
+     * (The walk still collects every path in {@link ScanResult#javaFiles()}: classification,
+     * incremental diffs and module sharding need the full list, and paths are small.)
+     */
+    private final class Prefetch {
+
+        private final ExecutorService workers;
+        private final Semaphore window = new Semaphore(PREFETCH_WINDOW);
+        private final Map<Path, Future<Optional<TestFileInfo>>> pending = new ConcurrentHashMap<>();
+
+        Prefetch(ExecutorService workers) {
+            this.workers = workers;
+        }
 
-        private static final int MAX_EXAMPLES_PER_PATTERN = 20;
-        private final Map<String, List<String>> examplesByPattern = new HashMap<>();
-        private final Map<String, Long> patternCounts = new HashMap<>();
-        private long totalAnalyzed = 0;
+        /**
+         * Scanner callback: starts extracting {@code javaFile} if it is a test source and the window has room.
+         */
+        void offer(Path javaFile) {
+            if (!classifier.isTestSource(javaFile) || !window.tryAcquire()) return;
+            pending.put(javaFile, workers.submit(() -> loadTestFile(javaFile)));
+        }
 
         /**
-         * Tokenizes a method name and applies light canonicalization so that equivalent constructs
-         * map to the same pattern (reduces stats fragmentation).
+         * @return the extraction of {@code testFile}, waiting for it if still running
          */
-        private static List<String> tokenizeAndNormalize(String methodName) {
-            List<String> tokens = TokenModel.tokenize(methodName);
-            if (tokens.isEmpty()) return tokens;
+        Optional<TestFileInfo> take(Path testFile) {
+            Future<Optional<TestFileInfo>> future = pending.remove(testFile);
+            if (future == null) return loadTestFile(testFile);
+            window.release();
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Analysis interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new RuntimeException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
 
-            for (int i = 0; i < tokens.size(); i++) {
-                String t = tokens.get(i);
+    /**
+     * What one test file contributed to the models (kept for incremental runs).
+     *
+     * @param info          extracted facts, or {@code null} if extraction failed
+     * @param sourceFile    production file matched to the test class, if any
+     * @param sourceMethods method names of {@code sourceFile} at the time of ingestion
+     */
+    private record Contribution(TestFileInfo info, Path sourceFile, Set<String> sourceMethods) {
+    }
 
-                // throw / throws / thrown => throws
-                if (t.equals("throw") || t.equals("throws") || t.equals("thrown")) {
-                    tokens.set(i, "throws");
-                    continue;
-                }
+    /**
+     * Test files to analyze, in scan order, and the models they are merged into.
+     */
+    record Shard(List<Path> files, Models into) {
+    }
 
-                // assert* and expect* => expect
-                if (t.equals("assert") || t.equals("asserts") || t.equals("asserted")
-                        || t.equals("expect") || t.equals("expects") || t.equals("expected")) {
-                    tokens.set(i, "expect");
-                }
+    /**
+     * The models fed by the analysis; workers (threads or {@link ShardWorker processes}) fill
+     * {@linkplain #empty() empty} partial sets that are {@linkplain #merge merged} back in input order.
+     */
+    record Models(TokenModel tokenModel,
+                          NamingModel namingModel,
+                          PhrasePatternModel patternModel,
+                          PatternStats patternStats) {
+
+        static Models create() {
+            return new Models(new TokenModel(), new NamingModel(), new PhrasePatternModel(false), new PatternStats());
+        }
 
-                // returns and return => returns
-                if (t.equals("returns") || t.equals("return")) {
-                    tokens.set(i, "return");
-                }
+        Models empty() {
+            return new Models(tokenModel.empty(), namingModel.empty(), patternModel.empty(), patternStats.empty());
+        }
 
-                // fails and fail => fails
-                if (t.equals("fails") || t.equals("fail")) {
-                    tokens.set(i, "fail");
-                }
-            }
+        void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods) {
+            patternStats.acceptMethod(method, testClass, tokens, sourceMethods);
+            tokenModel.acceptMethod(method, testClass, tokens, sourceMethods);
+            namingModel.acceptMethod(method, testClass, tokens, sourceMethods);
+            patternModel.acceptMethod(method, testClass, tokens, sourceMethods);
+        }
 
-            return tokens;
+        void retractMethod(TestMethodInfo method, String testClass, Set<String> sourceMethods) {
+            patternStats.retractMethod(method, testClass, sourceMethods);
+            tokenModel.retractMethod(method, testClass, sourceMethods);
+            namingModel.retractMethod(method, testClass, sourceMethods);
+            patternModel.retractMethod(method, testClass, sourceMethods);
         }
 
+        void merge(Models other) {
+            tokenModel.merge(other.tokenModel);
+            namingModel.merge(other.namingModel);
+            patternModel.merge(other.patternModel);
+            patternStats.merge(other.patternStats);
+        }
+
+        void write(DataOutput out) throws IOException {
+            tokenModel.write(out);
+            namingModel.write(out);
+            patternModel.write(out);
+            patternStats.write(out);
+        }
+
+        Models read(DataInput in) throws IOException {
+            return new Models(tokenModel.read(in), namingModel.read(in), patternModel.read(in), patternStats.read(in));
+        }
+    }
+
+    /**
+     * Keyword patterns of method names, with examples; not rendered as a report of its own.
+     */
+    static class PatternStats implements AnalysisModel<PatternStats> {
+        /**
+         * Keywords of the pattern, with light canonicalization so that equivalent constructs
+         * map to the same pattern (reduces stats fragmentation).
+         */
+        private static final Vocabulary KEYWORDS = Vocabulary.of(
+                        "given", "when", "then", "if", "should",
+                        "expect",
+                        "throws",
+                        "exception", "error",
+                        "fail",
+                        "return")
+                .withAliases("throws", "throw", "thrown")
+                .withAliases("expect", "assert", "asserts", "asserted", "expects", "expected")
+                .withAliases("return", "returns")
+                .withAliases("fail", "fails");
+
+        private static final int MAX_EXAMPLES_PER_PATTERN = 20;
+        private final Map<String, List<String>> examplesByPattern = new HashMap<>();
+        private final Map<String, Long> patternCounts = new HashMap<>();
+        private final MethodNameTokens scratch = new MethodNameTokens();
+        private long totalAnalyzed = 0;
+
         private void addExample(String pattern, String example) {
             List<String> list = examplesByPattern.computeIfAbsent(pattern, k -> new ArrayList<>());
             if (list.size() < MAX_EXAMPLES_PER_PATTERN) list.add(example);
         }
 
         void accept(String methodName) {
-            List<String> tokens = tokenizeAndNormalize(methodName);
-            long keywordsCount = tokens.stream().filter(KEYWORDS::contains).count();
-            if (keywordsCount < 1) {
+            accept(methodName, scratch.split(methodName));
+        }
+
+        @Override
+        public void acceptMethod(TestMethodInfo method, String testClass, MethodNameTokens tokens, Set<String> sourceMethods) {
+            accept(method.name(), tokens);
+        }
+
+        @Override
+        public void retractMethod(TestMethodInfo method, String testClass, Set<String> sourceMethods) {
+            retract(method.name());
+        }
+
+        /**
+         * Same as {@link #accept(String)}, for a name already {@linkplain MethodNameTokens#split split}.
+         */
+        void accept(String methodName, MethodNameTokens tokens) {
+            String pattern = patternOf(tokens);
+            if (pattern == null) {
                 return;
             }
 
             totalAnalyzed++;
+            patternCounts.merge(pattern, 1L, Long::sum);
+            addExample(pattern, methodName); // TODO testClassFqn + "#" +
+        }
 
-            StringBuilder sb = new StringBuilder();
+        /**
+         * Removes the contribution of a method name previously passed to {@link #accept}.
+         */
+        void retract(String methodName) {
+            String pattern = patternOf(scratch.split(methodName));
+            if (pattern == null) {
+                return;
+            }
+
+            totalAnalyzed--;
+            patternCounts.computeIfPresent(pattern, (p, count) -> count <= 1 ? null : count - 1);
+            List<String> examples = examplesByPattern.get(pattern);
+            if (examples != null) {
+                examples.remove(methodName);
+                if (examples.isEmpty()) examplesByPattern.remove(pattern);
+            }
+        }
+
+        /**
+         * Keywords are kept (capitalized), each run of other tokens becomes {@code <any>}.
+         *
+         * @return the keyword pattern of a method name, or {@code null} if it contains no keyword
+         */
+        private static String patternOf(MethodNameTokens tokens) {
+            StringBuilder sb = null;
             boolean inAnyRun = false;
+            boolean anyKeyword = false;
 
             for (int i = 0; i < tokens.size(); i++) {
-                String token = tokens.get(i);
-                boolean isKeyword = KEYWORDS.contains(token);
-                if (isKeyword) {
-                    // Special-case for exception or error
-                    if (token.equals("exception") || token.equals("error")) {
-                        // Check if previous tokens were non-keyword run
-                        if (inAnyRun) {
-                            // Close the <any> run before adding Exception/Error
-                            // Already appended <any>, so just append Exception/Error
-                            sb.append(" ");
-                            sb.append(Character.toUpperCase(token.charAt(0))).append(token.substring(1));
-                        } else {
-                            // No prior <any>, just append Exception/Error
-                            if (sb.length() > 0) sb.append(" ");
-                            sb.append(Character.toUpperCase(token.charAt(0))).append(token.substring(1));
-                        }
-                        inAnyRun = false;
-                    } else {
-                        // Normal keyword
-                        if (sb.length() > 0) sb.append(" ");
-                        sb.append(Character.toUpperCase(token.charAt(0))).append(token.substring(1));
-                        inAnyRun = false;
-                    }
+                int keyword = tokens.lookup(i, KEYWORDS);
+                if (keyword < 0 && inAnyRun) {
+                    continue;
+                }
+                if (sb == null) {
+                    sb = new StringBuilder(tokens.size() * 6);
                 } else {
-                    // Non-keyword token
-                    // Look ahead to see if next keyword is exception/error
-                    boolean nextIsExceptionOrError = false;
-                    if (i + 1 < tokens.size()) {
-                        String nextToken = tokens.get(i + 1);
-                        if (nextToken.equals("exception") || nextToken.equals("error")) {
-                            nextIsExceptionOrError = true;
-                        }
-                    }
-                    if (nextIsExceptionOrError) {
-                        // Do nothing here, placeholder will be before Exception/Error
-                        if (!inAnyRun) {
-                            if (sb.length() > 0) sb.append(" ");
-                            sb.append("<any>");
-                            inAnyRun = true;
-                        }
-                    } else {
-                        if (!inAnyRun) {
-                            if (sb.length() > 0) sb.append(" ");
-                            sb.append("<any>");
-                            inAnyRun = true;
-                        }
-                    }
+                    sb.append(' ');
+                }
+                if (keyword >= 0) {
+                    sb.append(KEYWORDS.capitalized(keyword));
+                    anyKeyword = true;
+                    inAnyRun = false;
+                } else {
+                    sb.append("<any>");
+                    inAnyRun = true;
                 }
             }
 
-            String pattern = sb.toString().trim().replaceAll("\\s+", " ");
-            patternCounts.merge(pattern, 1L, Long::sum);
-            addExample(pattern, methodName); // TODO testClassFqn + "#" +
+            return anyKeyword ? sb.toString() : null;
+        }
+
+        @Override
+        public void merge(PatternStats other) {
+            totalAnalyzed += other.totalAnalyzed;
+            other.patternCounts.forEach((pattern, count) -> patternCounts.merge(pattern, count, Long::sum));
+            other.examplesByPattern.forEach((pattern, examples) -> examples.forEach(e -> addExample(pattern, e)));
+        }
+
+        @Override
+        public PatternStats empty() {
+            return new PatternStats();
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeLong(totalAnalyzed);
+            out.writeInt(patternCounts.size());
+            for (var e : patternCounts.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+                List<String> examples = examplesByPattern.getOrDefault(e.getKey(), List.of());
+                out.writeInt(examples.size());
+                for (String example : examples) out.writeUTF(example);
+            }
+        }
+
+        @Override
+        public PatternStats read(DataInput in) throws IOException {
+            PatternStats stats = new PatternStats();
+            stats.totalAnalyzed = in.readLong();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String pattern = in.readUTF();
+                stats.patternCounts.put(pattern, in.readLong());
+                int n = in.readInt();
+                for (int k = 0; k < n; k++) stats.addExample(pattern, in.readUTF());
+            }
+            return stats;
+        }
+
+        /**
+         * No report: the statistics are only {@linkplain #renderTopPatterns rendered} as text.
+         */
+        @Override
+        public void createReport(ProjectAnalysis projectAnalysis) {
         }
 
         List<Map.Entry<String, Long>> topPatterns(int k) {
             return patternCounts.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(k)
-                    .toList();
+                    .collect(TopK.collector(k, (a, b) -> Long.compare(b.getValue(), a.getValue())));
         }
 
         String renderTopPatterns(int k) {
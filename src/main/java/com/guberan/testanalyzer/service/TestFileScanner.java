@@ -0,0 +1,525 @@
+package com.guberan.testanalyzer.service;
+
+import com.guberan.testanalyzer.model.TestFileInfo;
+import com.guberan.testanalyzer.model.TestMethodInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lexer-only alternative to {@link JavaAstService#parseTestFile(Path)}.
+ *
+ * <p>Extracts the package name, top-level type names and {@code @Test}-like methods
+ * (with their annotation names) from a single pass over the source tokens. Method bodies,
+ * initializers and expressions are skipped by brace/paren matching and never built.
+ *
+ * <p>The scanner gives up (returns {@link Optional#empty()}) whenever it meets syntax it
+ * cannot classify with certainty, for instance a test annotation inside a method body
+ * (anonymous or local class), unbalanced braces, or unicode escapes outside literals.
+ * Callers are expected to fall back to the full parser in that case.
+ *
+ * <p>Unlike the parser, the scanner does not validate the source: a syntactically broken
+ * file may still yield facts instead of being skipped.
+ */
+@Slf4j
+public class TestFileScanner {
+
+    /**
+     * @return the extracted facts, or empty if the file could not be read or the syntax is ambiguous
+     */
+    public Optional<TestFileInfo> scan(Path javaFile) {
+        String source;
+        try {
+            source = Files.readString(javaFile);
+        } catch (IOException e) {
+            log.debug("Scan IO error in {}: {}", javaFile, e.getMessage());
+            return Optional.empty();
+        }
+        return scan(javaFile, source);
+    }
+
+    /**
+     * Same as {@link #scan(CharSequence)}, reporting {@code javaFile} as the scanned file.
+     */
+    public Optional<TestFileInfo> scan(Path javaFile, CharSequence source) {
+        AnalyzerEvents.FileParsed event = new AnalyzerEvents.FileParsed();
+        event.begin();
+        Optional<TestFileInfo> info = scan(source);
+        event.finish(javaFile, source.length(), "scanner", info.isPresent());
+        return info;
+    }
+
+    public Optional<TestFileInfo> scan(CharSequence source) {
+        try {
+            return Optional.of(new Cursor(source).compilationUnit());
+        } catch (AmbiguousSyntaxException e) {
+            return Optional.empty();
+        }
+    }
+
+    /* ---- */
+
+    private enum Kind {IDENT, PUNCT, EOF}
+
+    /**
+     * Thrown (without stack trace) to abandon a scan.
+     */
+    private static final class AmbiguousSyntaxException extends RuntimeException {
+        private static final AmbiguousSyntaxException INSTANCE = new AmbiguousSyntaxException();
+
+        private AmbiguousSyntaxException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Single-use tokenizer + declaration recognizer over one source text.
+     */
+    private static final class Cursor {
+
+        private final CharSequence src;
+        private final int len;
+        private int pos;
+
+        // current token
+        private Kind kind;
+        private int start;
+        private int end;
+        private char punct;
+
+        // lookahead mark
+        private int markPos;
+        private Kind markKind;
+        private int markStart;
+        private int markEnd;
+        private char markPunct;
+
+        private String packageName = "";
+        private final List<String> typeNames = new ArrayList<>();
+        private final List<TestMethodInfo> testMethods = new ArrayList<>();
+
+        Cursor(CharSequence src) {
+            this.src = src;
+            this.len = src.length();
+        }
+
+        TestFileInfo compilationUnit() {
+            next();
+            while (kind != Kind.EOF) {
+                if (isIdent("package")) {
+                    next();
+                    packageName = qualifiedName();
+                    expect(';');
+                } else if (isIdent("import")) {
+                    skipPast(';');
+                } else if (isPunct('@')) {
+                    next();
+                    if (isIdent("interface")) {
+                        next();
+                        typeDeclaration(true, false);
+                    } else {
+                        annotation();
+                    }
+                } else if (isTypeKeyword()) {
+                    boolean isEnum = isIdent("enum");
+                    next();
+                    typeDeclaration(true, isEnum);
+                } else if (kind == Kind.IDENT || isPunct(';') || isPunct('-')) {
+                    next(); // modifiers (incl. non-sealed), stray semicolons
+                } else {
+                    throw AmbiguousSyntaxException.INSTANCE; // e.g. module-info
+                }
+            }
+            return new TestFileInfo(packageName, List.copyOf(typeNames), List.copyOf(testMethods));
+        }
+
+        /**
+         * Current token is the type name (the class/interface/enum/record keyword was consumed).
+         */
+        private void typeDeclaration(boolean topLevel, boolean isEnum) {
+            if (kind != Kind.IDENT) throw AmbiguousSyntaxException.INSTANCE;
+            if (topLevel) typeNames.add(text());
+            next();
+
+            // header: type parameters, record components, extends/implements/permits
+            while (!isPunct('{')) {
+                if (kind == Kind.EOF || isPunct(';')) throw AmbiguousSyntaxException.INSTANCE;
+                if (isPunct('(')) {
+                    skipBalanced('(', ')');
+                } else {
+                    next();
+                }
+            }
+            next();
+            typeBody(isEnum);
+        }
+
+        /**
+         * Current token is the first token after the opening brace; consumes the closing brace.
+         */
+        private void typeBody(boolean isEnum) {
+            if (isEnum) {
+                // enum constants, up to ';' or the end of the body
+                while (!isPunct(';')) {
+                    if (kind == Kind.EOF) throw AmbiguousSyntaxException.INSTANCE;
+                    if (isPunct('}')) {
+                        next();
+                        return;
+                    }
+                    if (isPunct('(')) {
+                        skipBalanced('(', ')');
+                    } else if (isPunct('{')) {
+                        skipBalanced('{', '}');
+                    } else if (isPunct('@')) {
+                        next();
+                        annotation();
+                    } else {
+                        next();
+                    }
+                }
+                next();
+            }
+
+            List<String> annotations = new ArrayList<>();
+            int lastIdent = -1; // start offset of the identifier just before the current token
+            int lastIdentEnd = -1;
+            while (true) {
+                if (kind == Kind.EOF) throw AmbiguousSyntaxException.INSTANCE;
+
+                if (isPunct('}')) {
+                    next();
+                    return;
+                }
+                if (isPunct('@')) {
+                    next();
+                    if (isIdent("interface")) {
+                        next();
+                        typeDeclaration(false, false);
+                        annotations.clear();
+                    } else {
+                        annotations.add(annotation());
+                    }
+                    lastIdent = -1;
+                } else if (isTypeKeyword()) {
+                    boolean nestedEnum = isIdent("enum");
+                    next();
+                    typeDeclaration(false, nestedEnum);
+                    annotations.clear();
+                    lastIdent = -1;
+                } else if (isPunct('(')) {
+                    if (lastIdent < 0) throw AmbiguousSyntaxException.INSTANCE;
+                    if (annotations.stream().anyMatch(TestMethodInfo::isTestAnnotation)) {
+                        String name = src.subSequence(lastIdent, lastIdentEnd).toString();
+                        testMethods.add(new TestMethodInfo(name, List.copyOf(annotations)));
+                    }
+                    skipBalanced('(', ')');
+                    methodTail();
+                    annotations.clear();
+                    lastIdent = -1;
+                } else if (isPunct('=')) {
+                    // field initializer
+                    skipPast(';');
+                    annotations.clear();
+                    lastIdent = -1;
+                } else if (isPunct('{')) {
+                    // (static) initializer or compact record constructor
+                    skipBalanced('{', '}');
+                    annotations.clear();
+                    lastIdent = -1;
+                } else if (isPunct(';')) {
+                    next();
+                    annotations.clear();
+                    lastIdent = -1;
+                } else if (kind == Kind.IDENT) {
+                    lastIdent = start;
+                    lastIdentEnd = end;
+                    next();
+                } else {
+                    next();
+                    lastIdent = -1;
+                }
+            }
+        }
+
+        /**
+         * After a method's parameter list: throws clause, then body, ';' or annotation default value.
+         */
+        private void methodTail() {
+            while (true) {
+                if (kind == Kind.EOF) throw AmbiguousSyntaxException.INSTANCE;
+                if (isPunct('{')) {
+                    skipBalanced('{', '}');
+                    return;
+                }
+                if (isPunct(';')) {
+                    next();
+                    return;
+                }
+                if (isIdent("default")) {
+                    skipPast(';');
+                    return;
+                }
+                if (isPunct('@')) {
+                    next();
+                    annotation();
+                } else {
+                    next();
+                }
+            }
+        }
+
+        /**
+         * Current token follows '@'. Consumes the name and the optional arguments.
+         */
+        private String annotation() {
+            String name = qualifiedName();
+            if (isPunct('(')) skipBalanced('(', ')');
+            return name;
+        }
+
+        private String qualifiedName() {
+            if (kind != Kind.IDENT) throw AmbiguousSyntaxException.INSTANCE;
+            StringBuilder sb = new StringBuilder(text());
+            next();
+            while (isPunct('.')) {
+                next();
+                if (kind != Kind.IDENT) throw AmbiguousSyntaxException.INSTANCE;
+                sb.append('.').append(text());
+                next();
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Skips everything up to and including {@code terminator} at nesting level zero.
+         */
+        private void skipPast(char terminator) {
+            while (!isPunct(terminator)) {
+                if (kind == Kind.EOF) throw AmbiguousSyntaxException.INSTANCE;
+                if (isPunct('(')) {
+                    skipBalanced('(', ')');
+                } else if (isPunct('{')) {
+                    skipBalanced('{', '}');
+                } else if (isPunct('[')) {
+                    skipBalanced('[', ']');
+                } else {
+                    checkNotTestAnnotation();
+                    next();
+                }
+            }
+            next();
+        }
+
+        /**
+         * Current token is {@code open}; consumes up to and including the matching {@code close}.
+         * A test annotation inside the skipped region means a test method we cannot attribute.
+         */
+        private void skipBalanced(char open, char close) {
+            int depth = 0;
+            do {
+                if (kind == Kind.EOF) throw AmbiguousSyntaxException.INSTANCE;
+                if (isPunct(open)) {
+                    depth++;
+                } else if (isPunct(close)) {
+                    depth--;
+                } else {
+                    checkNotTestAnnotation();
+                }
+                next();
+            } while (depth > 0);
+        }
+
+        private void checkNotTestAnnotation() {
+            if (!isPunct('@')) return;
+            mark();
+            next();
+            StringBuilder name = new StringBuilder();
+            while (kind == Kind.IDENT) {
+                name.append(src, start, end);
+                next();
+                if (!isPunct('.')) break;
+                name.append('.');
+                next();
+            }
+            reset();
+            if (TestMethodInfo.isTestAnnotation(name.toString())) throw AmbiguousSyntaxException.INSTANCE;
+        }
+
+        private void expect(char c) {
+            if (!isPunct(c)) throw AmbiguousSyntaxException.INSTANCE;
+            next();
+        }
+
+        private boolean isTypeKeyword() {
+            if (isIdent("class") || isIdent("interface") || isIdent("enum")) return true;
+            if (!isIdent("record")) return false;
+            // contextual keyword: "record Name(" or "record Name<"
+            mark();
+            next();
+            boolean result = false;
+            if (kind == Kind.IDENT) {
+                next();
+                result = isPunct('(') || isPunct('<');
+            }
+            reset();
+            return result;
+        }
+
+        /**
+         * Remembers the current token for a single level of lookahead.
+         */
+        private void mark() {
+            markPos = pos;
+            markKind = kind;
+            markStart = start;
+            markEnd = end;
+            markPunct = punct;
+        }
+
+        private void reset() {
+            pos = markPos;
+            kind = markKind;
+            start = markStart;
+            end = markEnd;
+            punct = markPunct;
+        }
+
+        private boolean isPunct(char c) {
+            return kind == Kind.PUNCT && punct == c;
+        }
+
+        private boolean isIdent(String word) {
+            int n = end - start;
+            if (kind != Kind.IDENT || n != word.length()) return false;
+            for (int i = 0; i < n; i++) {
+                if (src.charAt(start + i) != word.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private String text() {
+            return src.subSequence(start, end).toString();
+        }
+
+        // ---- lexer --------------------------------------------------------------
+
+        private void next() {
+            skipTrivia();
+            if (pos >= len) {
+                kind = Kind.EOF;
+                start = end = len;
+                return;
+            }
+            char c = src.charAt(pos);
+            start = pos;
+
+            if (Character.isJavaIdentifierStart(c)) {
+                pos++;
+                while (pos < len && Character.isJavaIdentifierPart(src.charAt(pos))) pos++;
+                kind = Kind.IDENT;
+                end = pos;
+                return;
+            }
+            if (c == '"' || c == '\'') {
+                skipLiteral(c);
+                next();
+                return;
+            }
+            if (Character.isDigit(c) || (c == '.' && pos + 1 < len && Character.isDigit(src.charAt(pos + 1)))) {
+                skipNumber();
+                next();
+                return;
+            }
+            if (c == '\\') {
+                throw AmbiguousSyntaxException.INSTANCE; // unicode escape outside a literal
+            }
+            pos++;
+            kind = Kind.PUNCT;
+            punct = c;
+            end = pos;
+        }
+
+        private void skipTrivia() {
+            while (pos < len) {
+                char c = src.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                } else if (c == '/' && pos + 1 < len && src.charAt(pos + 1) == '/') {
+                    while (pos < len && src.charAt(pos) != '\n') pos++;
+                } else if (c == '/' && pos + 1 < len && src.charAt(pos + 1) == '*') {
+                    int close = indexOf("*/", pos + 2);
+                    if (close < 0) throw AmbiguousSyntaxException.INSTANCE;
+                    pos = close + 2;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void skipLiteral(char quote) {
+            if (quote == '"' && pos + 2 < len && src.charAt(pos + 1) == '"' && src.charAt(pos + 2) == '"') {
+                // text block
+                pos += 3;
+                while (pos < len) {
+                    char c = src.charAt(pos);
+                    if (c == '\\') {
+                        pos += 2;
+                    } else if (c == '"' && pos + 2 < len && src.charAt(pos + 1) == '"' && src.charAt(pos + 2) == '"') {
+                        pos += 3;
+                        return;
+                    } else {
+                        pos++;
+                    }
+                }
+                throw AmbiguousSyntaxException.INSTANCE;
+            }
+            pos++;
+            while (pos < len) {
+                char c = src.charAt(pos);
+                if (c == '\\') {
+                    pos += 2;
+                } else if (c == quote) {
+                    pos++;
+                    return;
+                } else if (c == '\n') {
+                    break;
+                } else {
+                    pos++;
+                }
+            }
+            throw AmbiguousSyntaxException.INSTANCE;
+        }
+
+        private void skipNumber() {
+            while (pos < len) {
+                char c = src.charAt(pos);
+                if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                    pos++;
+                    // exponent sign: 1e-5, 0x1p+3
+                    if ((c == 'e' || c == 'E' || c == 'p' || c == 'P') && pos < len
+                            && (src.charAt(pos) == '+' || src.charAt(pos) == '-')) {
+                        pos++;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private int indexOf(String s, int from) {
+            outer:
+            for (int i = from; i <= len - s.length(); i++) {
+                for (int j = 0; j < s.length(); j++) {
+                    if (src.charAt(i + j) != s.charAt(j)) continue outer;
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+}
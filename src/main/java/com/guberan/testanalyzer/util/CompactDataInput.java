@@ -0,0 +1,193 @@
+package com.guberan.testanalyzer.util;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DataInput} reading what a {@link CompactDataOutput} wrote, from a
+ * {@link ReadableByteChannel} through a reusable buffer. Instances are not thread-safe.
+ */
+public final class CompactDataInput implements DataInput {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).flip();
+    private final List<String> strings = new ArrayList<>(); // reference - 1 -> string
+
+    public CompactDataInput(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return the buffer, holding at least {@code bytes} bytes (at most the buffer capacity)
+     */
+    private ByteBuffer need(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return buffer;
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) throw new EOFException();
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer;
+    }
+
+    public int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value >>> 32 != 0) throw new StreamCorruptedException("varint out of range: " + value);
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = need(1).get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new StreamCorruptedException("malformed varint");
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        long v = readVarLong();
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        int ref = readVarInt();
+        if (ref > 0) {
+            if (ref > strings.size()) throw new StreamCorruptedException("unknown string reference " + ref);
+            return strings.get(ref - 1);
+        }
+        byte[] bytes = new byte[readVarInt()];
+        readFully(bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        if (CompactDataOutput.pooled(strings.size(), bytes.length)) strings.add(s);
+        return s;
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuffer in = need(1);
+            int n = Math.min(len, in.remaining());
+            in.get(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        int skipped = 0;
+        while (skipped < n) {
+            ByteBuffer in = need(1);
+            int k = Math.min(n - skipped, in.remaining());
+            in.position(in.position() + k);
+            skipped += k;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return need(1).get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return need(2).getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return need(2).getChar();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return need(4).getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return need(8).getDouble();
+    }
+
+    /**
+     * Reads bytes up to a line terminator ({@code \n}, {@code \r} or {@code \r\n}), one char per
+     * byte, as {@link java.io.DataInputStream#readLine} does: meant for text written with
+     * {@link CompactDataOutput#writeBytes}.
+     *
+     * @return the line without its terminator, or {@code null} at the end of the input
+     */
+    @Override
+    public String readLine() throws IOException {
+        StringBuilder line = null;
+        while (buffer.hasRemaining() || fill()) {
+            int b = buffer.get() & 0xFF;
+            if (line == null) line = new StringBuilder();
+            if (b == '\n') break;
+            if (b == '\r') {
+                if ((buffer.hasRemaining() || fill()) && buffer.get(buffer.position()) == '\n') buffer.get();
+                break;
+            }
+            line.append((char) b);
+        }
+        return line == null ? null : line.toString();
+    }
+
+    /**
+     * Reads more bytes into the (empty) buffer.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean fill() throws IOException {
+        buffer.compact();
+        try {
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+            return n > 0;
+        } finally {
+            buffer.flip();
+        }
+    }
+}
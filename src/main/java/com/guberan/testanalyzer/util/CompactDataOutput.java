@@ -0,0 +1,165 @@
+package com.guberan.testanalyzer.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link DataOutput} writing a compact encoding to a {@link WritableByteChannel}, through a
+ * reusable buffer; read back with {@link CompactDataInput}.
+ * <ul>
+ *   <li>{@code int}s and {@code long}s are zig-zag varints: small counts take one byte</li>
+ *   <li>{@link #writeUTF} strings are UTF-8 of any length. The first {@value #POOL_SIZE} distinct
+ *   strings of up to {@value #POOLED_BYTES} bytes are written once per stream: a repeat is a
+ *   varint reference to the first occurrence (test method names recur across reports). Later or
+ *   longer strings are always written in full, so the dictionary both sides keep stays bounded
+ *   however long the stream.</li>
+ *   <li>other primitives are written as by {@link java.io.DataOutputStream}</li>
+ * </ul>
+ * Nothing reaches the channel before the buffer is full or {@link #flush()}ed. Instances are not thread-safe.
+ */
+public final class CompactDataOutput implements DataOutput {
+
+    /**
+     * Maximum number of strings in the dictionary of a stream (shared with {@link CompactDataInput}).
+     */
+    static final int POOL_SIZE = 16 * 1024;
+
+    /**
+     * Maximum UTF-8 length of a string kept in the dictionary.
+     */
+    static final int POOLED_BYTES = 256;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final Map<String, Integer> strings = new HashMap<>(); // string -> reference (1-based)
+
+    public CompactDataOutput(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private ByteBuffer room(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+        return buffer;
+    }
+
+    /**
+     * Writes {@code value} as a varint of 1 to 5 bytes (use for values that are usually small and non-negative).
+     */
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ByteBuffer b = room(10);
+        while ((value & ~0x7FL) != 0) {
+            b.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        b.put((byte) value);
+    }
+
+    @Override
+    public void writeInt(int v) throws IOException {
+        writeVarInt((v << 1) ^ (v >> 31));
+    }
+
+    @Override
+    public void writeLong(long v) throws IOException {
+        writeVarLong((v << 1) ^ (v >> 63));
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+        Integer ref = strings.get(s);
+        if (ref != null) {
+            writeVarInt(ref);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(0);
+        writeVarInt(bytes.length);
+        write(bytes);
+        if (pooled(strings.size(), bytes.length)) strings.put(s, strings.size() + 1);
+    }
+
+    /**
+     * @return whether a new string of {@code length} bytes joins a dictionary of {@code size} strings
+     */
+    static boolean pooled(int size, int length) {
+        return size < POOL_SIZE && length <= POOLED_BYTES;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        room(1).put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, room(1).remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean v) throws IOException {
+        write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) throws IOException {
+        write(v);
+    }
+
+    @Override
+    public void writeShort(int v) throws IOException {
+        room(2).putShort((short) v);
+    }
+
+    @Override
+    public void writeChar(int v) throws IOException {
+        room(2).putChar((char) v);
+    }
+
+    @Override
+    public void writeFloat(float v) throws IOException {
+        room(4).putFloat(v);
+    }
+
+    @Override
+    public void writeDouble(double v) throws IOException {
+        room(8).putDouble(v);
+    }
+
+    @Override
+    public void writeBytes(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) write(s.charAt(i));
+    }
+
+    @Override
+    public void writeChars(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) writeChar(s.charAt(i));
+    }
+}
@@ -0,0 +1,158 @@
+package com.guberan.testanalyzer.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reusable, single-pass tokenizer for method names.
+ * <p>
+ * Tokens are recorded as boundaries into the tokenized name, so splitting a name allocates
+ * nothing (once the buffers have grown to the longest name seen); use {@link #lookup} to
+ * match a token against a {@link Vocabulary} or a {@link TokenDictionary}, and {@link #token}
+ * only where a token string is really needed.
+ * <p>
+ * Two splitting rules are supported:
+ * <ul>
+ *   <li>{@link #split}: before every upper-case letter (except the first char), and on
+ *   {@code '_'} / {@code '-'} — {@code testXMLParser} -&gt; test|x|m|l|parser</li>
+ *   <li>{@link #splitWords}: on lower-to-upper case changes, letter/digit changes, and runs of
+ *   {@code '_'}, {@code '-'} or whitespace — {@code testXMLParser2} -&gt; test|xmlparser|2</li>
+ * </ul>
+ * Blank tokens are dropped in both cases. Instances are not thread-safe.
+ */
+public final class MethodNameTokens {
+
+    private CharSequence name = "";
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+
+    /**
+     * Splits {@code name} on camelCase boundaries and on {@code '_'} / {@code '-'}.
+     *
+     * @return this, holding the tokens of {@code name}
+     */
+    public MethodNameTokens split(CharSequence name) {
+        reset(name);
+        int start = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '-') {
+                add(start, i);
+                start = i + 1;
+            } else if (i > 0 && isUpper(c)) {
+                add(start, i);
+                start = i;
+            }
+        }
+        add(start, name.length());
+        return this;
+    }
+
+    /**
+     * Splits {@code name} into words: on lower-to-upper case changes, on letter/digit changes,
+     * and on {@code '_'}, {@code '-'} and whitespace.
+     *
+     * @return this, holding the words of {@code name}
+     */
+    public MethodNameTokens splitWords(CharSequence name) {
+        reset(name);
+        int start = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '-' || isSpace(c)) {
+                add(start, i);
+                start = i + 1;
+            } else if (i > start) {
+                char p = name.charAt(i - 1);
+                if ((isLower(p) && isUpper(c))
+                        || (isLetter(p) && isDigit(c))
+                        || (isDigit(p) && isLetter(c))) {
+                    add(start, i);
+                    start = i;
+                }
+            }
+        }
+        add(start, name.length());
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the {@code i}-th token, lower-cased (allocates)
+     */
+    public String token(int i) {
+        return name.subSequence(starts[i], ends[i]).toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the id of the {@code i}-th token in {@code vocabulary} (ASCII case-insensitive), or {@code -1}
+     */
+    public int lookup(int i, Vocabulary vocabulary) {
+        return vocabulary.lookup(name, starts[i], ends[i]);
+    }
+
+    /**
+     * @return the id of the {@code i}-th token (lower-cased) in {@code dictionary}, added if missing
+     */
+    public int intern(int i, TokenDictionary dictionary) {
+        return dictionary.intern(name, starts[i], ends[i]);
+    }
+
+    /**
+     * @return the id of the {@code i}-th token (lower-cased) in {@code dictionary}, or {@code -1}
+     */
+    public int lookup(int i, TokenDictionary dictionary) {
+        return dictionary.lookup(name, starts[i], ends[i]);
+    }
+
+    private void reset(CharSequence name) {
+        this.name = name;
+        this.size = 0;
+    }
+
+    private void add(int from, int to) {
+        if (isBlank(from, to)) return;
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = from;
+        ends[size] = to;
+        size++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(name.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isLetter(char c) {
+        return isUpper(c) || isLower(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -1,6 +1,5 @@
 package com.guberan.testanalyzer.util;
 
-import java.util.*;
 import java.util.regex.Pattern;
 
 /**
@@ -51,11 +50,11 @@ public class NamingUtil {
             "ITCase",
             "IT"
     };
-    private static final Set<String> BDD_CORE = Set.of(
+    private static final Vocabulary BDD_CORE = Vocabulary.of(
             "given", "when", "then", "should", "expect"
     );
     // “verbs” commonly used in tests (action/trigger)
-    private static final Set<String> ACTION_WORDS = Set.of(
+    private static final Vocabulary ACTION_WORDS = Vocabulary.of(
             "call", "calling",
             "invoke", "invoking",
             "execute", "executing",
@@ -76,7 +75,7 @@ public class NamingUtil {
             "calculate", "calculating"
     );
     // “assertion/outcome” words (Then/Should style)
-    private static final Set<String> OUTCOME_WORDS = Set.of(
+    private static final Vocabulary OUTCOME_WORDS = Vocabulary.of(
             "then", "should", "expect",
             "return", "returns", "returned",
             "throw", "throws", "thrown",
@@ -118,14 +117,6 @@ public class NamingUtil {
 //
 //        return false;
 //    }
-    // Splits on underscores / hyphens / spaces, and also camelCase boundaries and digit boundaries.
-    private static final Pattern TOKEN_SPLIT = Pattern.compile(
-            "(?<=[a-z])(?=[A-Z])" +  // fooBar -> foo|Bar
-                    "|(?<=[A-Za-z])(?=\\d)" + // foo1 -> foo|1
-                    "|(?<=\\d)(?=[A-Za-z])" + // 1foo -> 1|foo
-                    "|[_\\-\\s]+"             // snake_case, kebab-case, spaces
-    );
-
     private NamingUtil() {
     }
 
@@ -225,16 +216,6 @@ public class NamingUtil {
         return then >= 0;
     }
 
-    private static List<String> tokensOf(String methodName) {
-        String[] raw = TOKEN_SPLIT.split(methodName);
-        List<String> out = new ArrayList<>(raw.length);
-        for (String r : raw) {
-            if (r == null || r.isBlank()) continue;
-            out.add(r.toLowerCase(Locale.ROOT));
-        }
-        return out;
-    }
-
     // ---- Main heuristic --------------------------------------------------------
 
     /**
@@ -249,38 +230,38 @@ public class NamingUtil {
         if (methodName == null || methodName.isBlank()) {
             return false;
         }
+        return isBDDLike(new MethodNameTokens().splitWords(methodName));
+    }
 
-        List<String> tokens = tokensOf(methodName);
-
-        // Distinct matches so we don't inflate counts with repeated words
+    /**
+     * Same as {@link #isBDDLike(String)}, for a name already split with {@link MethodNameTokens#splitWords}.
+     */
+    public static boolean isBDDLike(MethodNameTokens words) {
         boolean hasAction = false;
         boolean hasOutcome = false;
 
-        int coreDistinct = 0;
-        // Use a tiny set for distinct core tracking
-        Set<String> coreSeen = null;
+        // Distinct matches so we don't inflate counts with repeated words
+        int coreSeen = 0; // bit set of BDD_CORE ids
 
-        for (String t : tokens) {
-            if (!hasAction && ACTION_WORDS.contains(t)) {
+        for (int i = 0; i < words.size(); i++) {
+            if (!hasAction && words.lookup(i, ACTION_WORDS) >= 0) {
                 hasAction = true;
             }
-            if (!hasOutcome && OUTCOME_WORDS.contains(t)) {
+            if (!hasOutcome && words.lookup(i, OUTCOME_WORDS) >= 0) {
                 hasOutcome = true;
             }
 
-            if (BDD_CORE.contains(t)) {
-                if (coreSeen == null) coreSeen = new HashSet<>(4);
-                if (coreSeen.add(t)) {
-                    coreDistinct++;
-                }
+            int core = words.lookup(i, BDD_CORE);
+            if (core >= 0) {
+                coreSeen |= 1 << core;
             }
 
             // Fast early exits
-            if ((hasAction && hasOutcome) || coreDistinct >= 2) {
+            if ((hasAction && hasOutcome) || Integer.bitCount(coreSeen) >= 2) {
                 return true;
             }
         }
 
         return false;
     }
-}
\ No newline at end of file
+}
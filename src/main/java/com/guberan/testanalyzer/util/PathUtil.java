@@ -1,10 +1,14 @@
 package com.guberan.testanalyzer.util;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Utility methods related to Java source file paths.
+ * Utility methods related to Java source file paths and directory trees.
  */
 public final class PathUtil {
 
@@ -59,4 +63,16 @@ public final class PathUtil {
 
         return Optional.of(rel);
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes {@code tree} and everything below it (no-op if it does not exist).
+     */
+    public static void deleteTree(Path tree) throws IOException {
+        if (!Files.exists(tree)) return;
+        try (Stream<Path> paths = Files.walk(tree)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.guberan.testanalyzer.util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -16,4 +19,100 @@ public class StringUtil {
                 .limit(maxLines)
                 .collect(Collectors.joining("\n"));
     }
+
+    /**
+     * Quotes {@code value} as a CSV field when it contains a comma, a quote or a line break (RFC 4180).
+     */
+    public static String csvField(String value) {
+        if (!needsCsvQuotes(value)) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Appends {@code value} as a {@linkplain #csvField CSV field} to {@code out}, without an intermediate string.
+     */
+    public static void appendCsvField(Appendable out, String value) throws IOException {
+        if (!needsCsvQuotes(value)) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int from = 0, quote; from < value.length(); from = quote + 1) {
+            quote = value.indexOf('"', from);
+            if (quote < 0) quote = value.length();
+            appendRange(out, value, from, quote);
+            if (quote < value.length()) out.append("\"\"");
+        }
+        out.append('"');
+    }
+
+    private static boolean needsCsvQuotes(String value) {
+        return value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    }
+
+    /**
+     * @return {@code value} as a JSON string literal (quoted and escaped), or {@code null}
+     */
+    public static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder(value == null ? 4 : value.length() + 2);
+        try {
+            appendJsonString(sb, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends {@code value} as a {@linkplain #jsonString JSON string literal} to {@code out}, without an
+     * intermediate string: runs of characters that need no escaping are appended as they are.
+     */
+    public static void appendJsonString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int from = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+            appendRange(out, value, from, i);
+            from = i + 1;
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        appendRange(out, value, from, value.length());
+        out.append('"');
+    }
+
+    // Writer.append(CharSequence, int, int) copies the range to a new string first
+    private static void appendRange(Appendable out, String value, int from, int to) throws IOException {
+        if (out instanceof Writer writer) writer.write(value, from, to - from);
+        else out.append(value, from, to);
+    }
+
+    /**
+     * Removes the first line of {@code text} equal to {@code line} (no-op if absent).
+     */
+    public static String removeLine(String text, String line) {
+        int from = 0;
+        while (from <= text.length()) {
+            int eol = text.indexOf('\n', from);
+            int to = eol < 0 ? text.length() : eol;
+            if (to - from == line.length() && text.startsWith(line, from)) {
+                if (eol >= 0) return text.substring(0, from) + text.substring(eol + 1);
+                return from == 0 ? "" : text.substring(0, from - 1);
+            }
+            if (eol < 0) break;
+            from = eol + 1;
+        }
+        return text;
+    }
 }
\ No newline at end of file
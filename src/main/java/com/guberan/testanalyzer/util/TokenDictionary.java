@@ -0,0 +1,125 @@
+package com.guberan.testanalyzer.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Growable set of lower-cased tokens, each given a dense integer id (in insertion order).
+ * A region of a {@link CharSequence} is matched (ASCII case-insensitively) without
+ * allocating, so only the first occurrence of a token creates its string.
+ * <p>
+ * Regions with non-ASCII characters are lower-cased with {@link String#toLowerCase(Locale)},
+ * like {@link MethodNameTokens#token}. Instances are not thread-safe.
+ */
+public final class TokenDictionary {
+
+    private String[] tokens = new String[64]; // id -> token
+    private int[] hashes = new int[64];       // id -> token.hashCode()
+    private int[] slots = new int[128];       // open addressing: id + 1, 0 = free
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public String token(int id) {
+        return tokens[id];
+    }
+
+    /**
+     * @return the id of {@code s[from, to)} lower-cased, added if missing
+     */
+    public int intern(CharSequence s, int from, int to) {
+        return find(s, from, to, true);
+    }
+
+    /**
+     * @return the id of {@code s[from, to)} lower-cased, or {@code -1} if unknown
+     */
+    public int lookup(CharSequence s, int from, int to) {
+        return find(s, from, to, false);
+    }
+
+    /**
+     * @return the id of {@code token} (already lower-cased), added if missing
+     */
+    public int intern(String token) {
+        return find(token, 0, token.length(), true);
+    }
+
+    private int find(CharSequence s, int from, int to, boolean add) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) return findLowerCased(s.subSequence(from, to).toString().toLowerCase(Locale.ROOT), add);
+            hash = 31 * hash + lower(c);
+        }
+
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) break;
+            if (hashes[id] == hash && regionEquals(tokens[id], s, from, to)) return id;
+        }
+        if (!add) return -1;
+
+        StringBuilder sb = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) sb.append(lower(s.charAt(i)));
+        return add(sb.toString(), hash);
+    }
+
+    private int findLowerCased(String token, boolean add) {
+        int hash = token.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) break;
+            if (hashes[id] == hash && tokens[id].equals(token)) return id;
+        }
+        return add ? add(token, hash) : -1;
+    }
+
+    private int add(String token, int hash) {
+        if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        tokens[id] = token;
+        hashes[id] = hash;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            place(id);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int id = 0; id < size; id++) place(id);
+    }
+
+    private void place(int id) {
+        int mask = slots.length - 1;
+        int slot = spread(hashes[id]) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = id + 1;
+    }
+
+    private static boolean regionEquals(String token, CharSequence s, int from, int to) {
+        if (token.length() != to - from) return false;
+        for (int i = from; i < to; i++) {
+            if (token.charAt(i - from) != lower(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
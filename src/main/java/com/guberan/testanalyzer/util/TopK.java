@@ -0,0 +1,118 @@
+package com.guberan.testanalyzer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Streaming selection of the {@code k} first items in a given order, with a bounded heap:
+ * {@code O(n log k)} time and {@code O(k)} memory instead of sorting all {@code n} items.
+ * <p>
+ * The selection is stable: equal items keep their encounter order, so the result is exactly
+ * what {@code stream.sorted(order).limit(k)} returns. Instances are not thread-safe.
+ *
+ * @param <T> item type
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final Object[] items; // binary heap, the last-ranked item kept at the root
+    private final long[] seqs;     // encounter order, to break ties
+    private int size;
+    private long seq;
+
+    public TopK(int k, Comparator<? super T> order) {
+        if (k < 0) throw new IllegalArgumentException("k < 0: " + k);
+        this.k = k;
+        this.order = order;
+        this.items = new Object[k];
+        this.seqs = new long[k];
+    }
+
+    /**
+     * @return a collector of the {@code k} first items in {@code order}, first one first
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        return Collector.of(() -> new TopK<T>(k, order), TopK::offer, TopK::merge, TopK::toList);
+    }
+
+    public void offer(T item) {
+        long s = seq++;
+        if (size < k) {
+            items[size] = item;
+            seqs[size] = s;
+            siftUp(size++);
+        } else if (k > 0 && before(item, s, 0)) {
+            items[0] = item;
+            seqs[0] = s;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return the kept items, first one first
+     */
+    public List<T> toList() {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) slots[i] = i;
+        Arrays.sort(slots, (a, b) -> before(item(a), seqs[a], b) ? -1 : 1);
+        List<T> result = new ArrayList<>(size);
+        for (int slot : slots) result.add(item(slot));
+        return result;
+    }
+
+    /**
+     * Offers the items kept by {@code other}, which come after those offered so far.
+     */
+    private TopK<T> merge(TopK<T> other) {
+        other.toList().forEach(this::offer);
+        return this;
+    }
+
+    /**
+     * @return {@code true} if {@code item} (encountered at {@code s}) ranks before the item at {@code slot}
+     */
+    private boolean before(T item, long s, int slot) {
+        int c = order.compare(item, item(slot));
+        return c < 0 || (c == 0 && s < seqs[slot]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(item(parent), seqs[parent], slot)) break;
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int last = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && before(item(last), seqs[last], left)) last = left;
+            if (right < size && before(item(last), seqs[last], right)) last = right;
+            if (last == slot) return;
+            swap(slot, last);
+            slot = last;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        long s = seqs[a];
+        seqs[a] = seqs[b];
+        seqs[b] = s;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int slot) {
+        return (T) items[slot];
+    }
+}
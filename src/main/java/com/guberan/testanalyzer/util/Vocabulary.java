@@ -0,0 +1,111 @@
+package com.guberan.testanalyzer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of lower-case ASCII words, matched case-insensitively against a region of a
+ * {@link CharSequence} without allocating. Aliases map several surface forms to one canonical
+ * word (e.g. throw/thrown =&gt; throws); each canonical word has a small integer id, in
+ * declaration order.
+ */
+public final class Vocabulary {
+
+    private final List<String> words;        // id -> canonical word
+    private final String[] capitalized;      // id -> Canonical word
+    private final Map<String, String> forms; // surface form -> canonical word
+    private final String[][] formsByLength;  // surface forms grouped by length
+    private final int[][] idsByLength;       // ids of formsByLength
+
+    private Vocabulary(List<String> words, Map<String, String> forms) {
+        this.words = List.copyOf(words);
+        this.forms = forms;
+        this.capitalized = new String[words.size()];
+        for (int id = 0; id < words.size(); id++) {
+            String w = words.get(id);
+            capitalized[id] = Character.toUpperCase(w.charAt(0)) + w.substring(1);
+        }
+
+        int maxLength = forms.keySet().stream().mapToInt(String::length).max().orElse(0);
+        formsByLength = new String[maxLength + 1][0];
+        idsByLength = new int[maxLength + 1][0];
+        forms.forEach((form, word) -> {
+            int len = form.length();
+            int n = formsByLength[len].length;
+            formsByLength[len] = Arrays.copyOf(formsByLength[len], n + 1);
+            idsByLength[len] = Arrays.copyOf(idsByLength[len], n + 1);
+            formsByLength[len][n] = form;
+            idsByLength[len][n] = this.words.indexOf(word);
+        });
+    }
+
+    /**
+     * @param words lower-case ASCII words
+     */
+    public static Vocabulary of(String... words) {
+        Map<String, String> forms = new LinkedHashMap<>();
+        for (String w : words) forms.put(w, w);
+        return new Vocabulary(List.of(words), forms);
+    }
+
+    /**
+     * @return a copy of this vocabulary where {@code aliases} also match {@code word}
+     * (which is added if missing)
+     */
+    public Vocabulary withAliases(String word, String... aliases) {
+        List<String> newWords = new ArrayList<>(words);
+        if (!newWords.contains(word)) newWords.add(word);
+        Map<String, String> newForms = new LinkedHashMap<>(forms);
+        newForms.putIfAbsent(word, word);
+        for (String alias : aliases) newForms.put(alias, word);
+        return new Vocabulary(newWords, newForms);
+    }
+
+    /**
+     * @return the id of the word spelled by {@code s[from, to)}, or {@code -1} if none
+     */
+    public int lookup(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len >= formsByLength.length) return -1;
+        String[] candidates = formsByLength[len];
+        candidates:
+        for (int k = 0; k < candidates.length; k++) {
+            String form = candidates[k];
+            for (int j = 0; j < len; j++) {
+                char c = s.charAt(from + j);
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+                if (c != form.charAt(j)) continue candidates;
+            }
+            return idsByLength[len][k];
+        }
+        return -1;
+    }
+
+    /**
+     * @return the id of {@code form}, or {@code -1} if none
+     */
+    public int lookup(String form) {
+        return lookup(form, 0, form.length());
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * @return the canonical word of {@code id}
+     */
+    public String word(int id) {
+        return words.get(id);
+    }
+
+    /**
+     * @return the canonical word of {@code id}, with its first letter in upper case
+     */
+    public String capitalized(int id) {
+        return capitalized[id];
+    }
+}